@@ -11,10 +11,20 @@ import com.turjo.easysleep.managers.ConfigManager;
 import com.turjo.easysleep.managers.DayCounterManager;
 import com.turjo.easysleep.managers.DreamSequenceManager;
 import com.turjo.easysleep.managers.DayNightCycleManager;
+import com.turjo.easysleep.managers.EffectScheduler;
 import com.turjo.easysleep.managers.MoonPhaseManager;
+import com.turjo.easysleep.managers.ParticleManager;
+import com.turjo.easysleep.managers.PerformanceMonitor;
 import com.turjo.easysleep.managers.SleepRitualManager;
+import com.turjo.easysleep.managers.SleepStateIndex;
 import com.turjo.easysleep.managers.StatisticsManager;
+import com.turjo.easysleep.managers.StorageManager;
+import com.turjo.easysleep.managers.TimeAccelerationManager;
 import com.turjo.easysleep.managers.UpdateChecker;
+import com.turjo.easysleep.managers.WorldClockService;
+import com.turjo.easysleep.managers.WorldRegistry;
+import com.turjo.easysleep.managers.RewardDistributor;
+import com.turjo.easysleep.managers.RewardMailbox;
 import com.turjo.easysleep.managers.RewardsManager;
 import com.turjo.easysleep.managers.QuantumSleepManager;
 import com.turjo.easysleep.managers.DimensionalSleepManager;
@@ -39,9 +49,17 @@ public class EasySleep extends JavaPlugin {
     private static EasySleep instance;
     private AnimationManager animationManager;
     private ConfigManager configManager;
+    private StorageManager storageManager;
+    private PerformanceMonitor performanceMonitor;
+    private EffectScheduler effectScheduler;
+    private WorldRegistry worldRegistry;
+    private WorldClockService worldClockService;
+    private ParticleManager particleManager;
     private DayCounterManager dayCounterManager;
     private UpdateChecker updateChecker;
     private AFKManager afkManager;
+    private SleepStateIndex sleepStateIndex;
+    private TimeAccelerationManager timeAccelerationManager;
     private AntiSpamManager antiSpamManager;
     private ClockAnimationManager clockAnimationManager;
     private DayNightCycleManager dayNightCycleManager;
@@ -50,6 +68,8 @@ public class EasySleep extends JavaPlugin {
     private SleepRitualManager sleepRitualManager;
     private MoonPhaseManager moonPhaseManager;
     private RewardsManager rewardsManager;
+    private RewardDistributor rewardDistributor;
+    private RewardMailbox rewardMailbox;
     private QuantumSleepManager quantumSleepManager;
     private DimensionalSleepManager dimensionalSleepManager;
     private SleepAchievementManager sleepAchievementManager;
@@ -60,11 +80,21 @@ public class EasySleep extends JavaPlugin {
         
         // Initialize managers
         this.configManager = new ConfigManager(this);
+        this.storageManager = new StorageManager(this);
+        this.performanceMonitor = new PerformanceMonitor(this);
+        this.worldRegistry = new WorldRegistry(this);
+        this.effectScheduler = new EffectScheduler(this);
+        this.worldClockService = new WorldClockService(this);
+        this.particleManager = new ParticleManager(this);
+        this.rewardMailbox = new RewardMailbox(this);
+        this.rewardDistributor = new RewardDistributor(this);
         this.rewardsManager = new RewardsManager(this);
         this.animationManager = new AnimationManager(this);
         this.dayCounterManager = new DayCounterManager(this);
         this.updateChecker = new UpdateChecker(this);
         this.afkManager = new AFKManager(this);
+        this.sleepStateIndex = new SleepStateIndex(this);
+        this.timeAccelerationManager = new TimeAccelerationManager(this);
         this.antiSpamManager = new AntiSpamManager(this);
         this.clockAnimationManager = new ClockAnimationManager(this);
         this.dayNightCycleManager = new DayNightCycleManager(this);
@@ -129,18 +159,33 @@ public class EasySleep extends JavaPlugin {
         getLogger().info("╚═══════════════════════════════════════════╝");
         
         // Cleanup
+        if (rewardDistributor != null) {
+            rewardDistributor.cleanup();
+        }
         if (rewardsManager != null) {
             rewardsManager.cleanup();
         }
+        if (rewardMailbox != null) {
+            rewardMailbox.cleanup();
+        }
         if (animationManager != null) {
             animationManager.cleanup();
         }
         if (dayCounterManager != null) {
             dayCounterManager.cleanup();
         }
+        if (updateChecker != null) {
+            updateChecker.cleanup();
+        }
         if (afkManager != null) {
             afkManager.cleanup();
         }
+        if (timeAccelerationManager != null) {
+            timeAccelerationManager.cleanup();
+        }
+        if (sleepStateIndex != null) {
+            sleepStateIndex.cleanup();
+        }
         if (antiSpamManager != null) {
             antiSpamManager.cleanup();
         }
@@ -168,6 +213,27 @@ public class EasySleep extends JavaPlugin {
         if (sleepAchievementManager != null) {
             sleepAchievementManager.cleanup();
         }
+        if (statisticsManager != null) {
+            statisticsManager.cleanup();
+        }
+        if (worldClockService != null) {
+            worldClockService.cleanup();
+        }
+        if (effectScheduler != null) {
+            effectScheduler.cleanup();
+        }
+        if (particleManager != null) {
+            particleManager.cleanup();
+        }
+        if (worldRegistry != null) {
+            worldRegistry.cleanup();
+        }
+        if (performanceMonitor != null) {
+            performanceMonitor.cleanup();
+        }
+        if (storageManager != null) {
+            storageManager.shutdown();
+        }
         instance = null;
     }
     
@@ -200,7 +266,7 @@ public class EasySleep extends JavaPlugin {
      * Set default sleep percentage to 1% for all worlds
      */
     private void setDefaultSleepPercentage() {
-        int defaultPercentage = configManager.getConfig().getInt("sleep.default-percentage", 50);
+        int defaultPercentage = configManager.getSettings().getDefaultPercentage();
         for (World world : getServer().getWorlds()) {
             Integer currentPercentage = world.getGameRuleValue(GameRule.PLAYERS_SLEEPING_PERCENTAGE);
             if (currentPercentage == null || currentPercentage != defaultPercentage) {
@@ -226,6 +292,22 @@ public class EasySleep extends JavaPlugin {
         return rewardsManager;
     }
     
+    /**
+     * Get the reward distributor
+     * @return RewardDistributor instance
+     */
+    public RewardDistributor getRewardDistributor() {
+        return rewardDistributor;
+    }
+    
+    /**
+     * Get the reward mailbox
+     * @return RewardMailbox instance
+     */
+    public RewardMailbox getRewardMailbox() {
+        return rewardMailbox;
+    }
+    
     /**
      * Get the animation manager
      * @return AnimationManager instance
@@ -242,6 +324,22 @@ public class EasySleep extends JavaPlugin {
         return configManager;
     }
     
+    /**
+     * Get the world registry
+     * @return WorldRegistry instance
+     */
+    public WorldRegistry getWorldRegistry() {
+        return worldRegistry;
+    }
+    
+    /**
+     * Get the world clock service
+     * @return WorldClockService instance
+     */
+    public WorldClockService getWorldClockService() {
+        return worldClockService;
+    }
+    
     /**
      * Get the day counter manager
      * @return DayCounterManager instance
@@ -266,6 +364,22 @@ public class EasySleep extends JavaPlugin {
         return afkManager;
     }
     
+    /**
+     * Get the sleep state index
+     * @return SleepStateIndex instance
+     */
+    public SleepStateIndex getSleepStateIndex() {
+        return sleepStateIndex;
+    }
+    
+    /**
+     * Get the time acceleration manager
+     * @return TimeAccelerationManager instance
+     */
+    public TimeAccelerationManager getTimeAccelerationManager() {
+        return timeAccelerationManager;
+    }
+    
     /**
      * Get the anti-spam manager
      * @return AntiSpamManager instance
@@ -290,6 +404,38 @@ public class EasySleep extends JavaPlugin {
         return dayNightCycleManager;
     }
     
+    /**
+     * Get the storage manager
+     * @return StorageManager instance
+     */
+    public StorageManager getStorageManager() {
+        return storageManager;
+    }
+    
+    /**
+     * Get the performance monitor
+     * @return PerformanceMonitor instance
+     */
+    public PerformanceMonitor getPerformanceMonitor() {
+        return performanceMonitor;
+    }
+    
+    /**
+     * Get the effect scheduler
+     * @return EffectScheduler instance
+     */
+    public EffectScheduler getEffectScheduler() {
+        return effectScheduler;
+    }
+    
+    /**
+     * Get the particle manager
+     * @return ParticleManager instance
+     */
+    public ParticleManager getParticleManager() {
+        return particleManager;
+    }
+    
     /**
      * Get the statistics manager
      * @return StatisticsManager instance
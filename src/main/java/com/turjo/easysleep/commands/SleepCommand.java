@@ -1,6 +1,7 @@
 package com.turjo.easysleep.commands;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.managers.PerformanceMonitor;
 import com.turjo.easysleep.utils.MessageUtils;
 import org.bukkit.GameRule;
 import org.bukkit.World;
@@ -100,6 +101,12 @@ public class SleepCommand implements CommandExecutor, TabCompleter {
                     return true;
                 }
                 return handleStatsCommand(sender);
+            case "perf":
+                if (!sender.hasPermission("easysleep.admin")) {
+                    MessageUtils.sendMessage(sender, "&cYou don't have permission to use this command!");
+                    return true;
+                }
+                return handlePerfCommand(sender);
             case "update":
                 if (!sender.hasPermission("easysleep.admin")) {
                     MessageUtils.sendMessage(sender, "&cYou don't have permission to use this command!");
@@ -112,6 +119,12 @@ public class SleepCommand implements CommandExecutor, TabCompleter {
                     return true;
                 }
                 return handleRewardsCommand(sender);
+            case "claim":
+                if (!sender.hasPermission("easysleep.rewards")) {
+                    MessageUtils.sendMessage(sender, "&cYou don't have permission to use this command!");
+                    return true;
+                }
+                return handleClaimCommand(sender);
             case "achievements":
                 if (!sender.hasPermission("easysleep.achievements")) {
                     MessageUtils.sendMessage(sender, "&cYou don't have permission to use this command!");
@@ -204,9 +217,7 @@ public class SleepCommand implements CommandExecutor, TabCompleter {
         // Get current statistics
         Integer currentPercentage = world.getGameRuleValue(GameRule.PLAYERS_SLEEPING_PERCENTAGE);
         int totalPlayers = world.getPlayers().size();
-        int sleepingPlayers = (int) world.getPlayers().stream()
-                .mapToInt(p -> p.isSleeping() ? 1 : 0)
-                .sum();
+        int sleepingPlayers = plugin.getSleepStateIndex().getSleepingCount(world);
         
         MessageUtils.sendMessage(sender, "&6╔═══════════════════════════════════════════╗");
         MessageUtils.sendMessage(sender, "&6║ &b⚡ &f&lSLEEP PROTOCOL STATUS &b⚡ &6║");
@@ -221,7 +232,7 @@ public class SleepCommand implements CommandExecutor, TabCompleter {
         MessageUtils.sendMessage(sender, "&6║ &fAnimations: " + (plugin.getConfigManager().areAnimationsEnabled() ? "&aEnabled" : "&cDisabled") + String.format("%" + (19 - (plugin.getConfigManager().areAnimationsEnabled() ? "Enabled" : "Disabled").length()) + "s", "") + "&6║");
         MessageUtils.sendMessage(sender, "&6║ &fDay Counter: " + (plugin.getConfigManager().isDayCounterEnabled() ? "&aDay " + plugin.getDayCounterManager().getCurrentDay(world) : "&cDisabled") + String.format("%" + (15 - (plugin.getConfigManager().isDayCounterEnabled() ? ("Day " + plugin.getDayCounterManager().getCurrentDay(world)) : "Disabled").length()) + "s", "") + "&6║");
         MessageUtils.sendMessage(sender, "&6║ &fEnhanced FX: " + (plugin.getConfigManager().areEnhancedParticlesEnabled() ? "&aActive" : "&cInactive") + String.format("%" + (18 - (plugin.getConfigManager().areEnhancedParticlesEnabled() ? "Active" : "Inactive").length()) + "s", "") + "&6║");
-        MessageUtils.sendMessage(sender, "&6║ &fRewards: " + (plugin.getConfigManager().getConfig().getBoolean("rewards.enabled", true) ? "&aEnabled" : "&cDisabled") + String.format("%" + (20 - (plugin.getConfigManager().getConfig().getBoolean("rewards.enabled", true) ? "Enabled" : "Disabled").length()) + "s", "") + "&6║");
+        MessageUtils.sendMessage(sender, "&6║ &fRewards: " + (plugin.getConfigManager().getSettings().areRewardsEnabled() ? "&aEnabled" : "&cDisabled") + String.format("%" + (20 - (plugin.getConfigManager().getSettings().areRewardsEnabled() ? "Enabled" : "Disabled").length()) + "s", "") + "&6║");
         MessageUtils.sendMessage(sender, "&6║ &fMoon Phase: " + plugin.getMoonPhaseManager().getMoonPhaseInfo(world) + String.format("%" + (20 - plugin.getMoonPhaseManager().getMoonPhaseInfo(world).length()) + "s", "") + "&6║");
         MessageUtils.sendMessage(sender, "&6║ &fDream States: &d" + plugin.getDreamSequenceManager().getActiveDreamCount() + String.format("%" + (18 - String.valueOf(plugin.getDreamSequenceManager().getActiveDreamCount()).length()) + "s", "") + "&6║");
         MessageUtils.sendMessage(sender, "&6║ &fActive Rituals: &5" + plugin.getSleepRitualManager().getActiveRitualCount() + String.format("%" + (16 - String.valueOf(plugin.getSleepRitualManager().getActiveRitualCount()).length()) + "s", "") + "&6║");
@@ -341,11 +352,39 @@ public class SleepCommand implements CommandExecutor, TabCompleter {
         MessageUtils.sendMessage(sender, "&6║ &fNight Skips: &a" + plugin.getStatisticsManager().getTotalNightSkips() + " &6║");
         MessageUtils.sendMessage(sender, "&6║ &fDays Tracked: &b" + plugin.getStatisticsManager().getTotalDaysTracked() + " &6║");
         MessageUtils.sendMessage(sender, "&6║ &fPlayers Served: &d" + plugin.getStatisticsManager().getTotalPlayersServed() + " &6║");
+        MessageUtils.sendMessage(sender, "&6║ &fParticles: &a" + plugin.getParticleManager().getEmittedCount() + " &7/ &c" + plugin.getParticleManager().getShedCount() + " shed &7/ &7" + plugin.getParticleManager().getCulledCount() + " culled &6║");
         MessageUtils.sendMessage(sender, "&6║ &fVersion: &e" + plugin.getDescription().getVersion() + " &6║");
         MessageUtils.sendMessage(sender, "&6╚═══════════════════════════════════════════╝");
         return true;
     }
     
+    /**
+     * Handle the perf subcommand
+     */
+    private boolean handlePerfCommand(CommandSender sender) {
+        PerformanceMonitor monitor = plugin.getPerformanceMonitor();
+        if (!monitor.isEnabled()) {
+            MessageUtils.sendMessage(sender, "&cPerformance monitoring is disabled! &7(technical.performance-monitoring)");
+            return true;
+        }
+        
+        MessageUtils.sendMessage(sender, "&6╔═══════════════════════════════════════════╗");
+        MessageUtils.sendMessage(sender, "&6║ &b⏱ &f&lEASYSLEEP PERFORMANCE &b⏱ &6║");
+        MessageUtils.sendMessage(sender, "&6╠═══════════════════════════════════════════╣");
+        MessageUtils.sendMessage(sender, "&6║ &7ms/tick over the last minute: avg p50 p95 p99 max &6║");
+        for (PerformanceMonitor.Timer timer : monitor.getTimers()) {
+            double[] percentiles = timer.getPercentileMillis(50, 95, 99);
+            MessageUtils.sendMessage(sender, String.format("&6║ &f%s: &e%.3f &7%.3f %.3f %.3f &c%.3f &8(%d calls) &6║",
+                timer.getName(), timer.getAverageMillis(), percentiles[0], percentiles[1], percentiles[2],
+                timer.getMaxMillis(), timer.getCalls()));
+        }
+        MessageUtils.sendMessage(sender, "&6╠═══════════════════════════════════════════╣");
+        MessageUtils.sendMessage(sender, "&6║ &fActive Effects: &e" + plugin.getEffectScheduler().getActiveEffectCount() + " &6║");
+        MessageUtils.sendMessage(sender, "&6║ &fParticles: &a" + plugin.getParticleManager().getEmittedCount() + " &7/ &c" + plugin.getParticleManager().getShedCount() + " shed &7/ &7" + plugin.getParticleManager().getCulledCount() + " culled &6║");
+        MessageUtils.sendMessage(sender, "&6╚═══════════════════════════════════════════╝");
+        return true;
+    }
+    
     /**
      * Handle the update subcommand
      */
@@ -371,13 +410,26 @@ public class SleepCommand implements CommandExecutor, TabCompleter {
         MessageUtils.sendMessage(sender, "&6║ &b🎁 &f&lREWARDS INFORMATION &b🎁 &6║");
         MessageUtils.sendMessage(sender, "&6╠═══════════════════════════════════════════╣");
         MessageUtils.sendMessage(sender, "&6║ &fYour Sleep Streak: &e" + streak + " days" + String.format("%" + (15 - String.valueOf(streak).length()) + "s", "") + "&6║");
-        MessageUtils.sendMessage(sender, "&6║ &fMoney per Sleep: &a$" + plugin.getConfigManager().getConfig().getDouble("rewards.economy.money-per-sleep", 25.0) + String.format("%" + (15 - String.valueOf(plugin.getConfigManager().getConfig().getDouble("rewards.economy.money-per-sleep", 25.0)).length()) + "s", "") + "&6║");
-        MessageUtils.sendMessage(sender, "&6║ &fXP per Sleep: &b" + plugin.getConfigManager().getConfig().getInt("rewards.experience.xp-per-sleep", 100) + " XP" + String.format("%" + (15 - String.valueOf(plugin.getConfigManager().getConfig().getInt("rewards.experience.xp-per-sleep", 100)).length()) + "s", "") + "&6║");
-        MessageUtils.sendMessage(sender, "&6║ &fRewards Status: " + (plugin.getConfigManager().getConfig().getBoolean("rewards.enabled", true) ? "&aEnabled" : "&cDisabled") + String.format("%" + (17 - (plugin.getConfigManager().getConfig().getBoolean("rewards.enabled", true) ? "Enabled" : "Disabled").length()) + "s", "") + "&6║");
+        MessageUtils.sendMessage(sender, "&6║ &fMoney per Sleep: &a$" + plugin.getConfigManager().getSettings().getMoneyPerSleep() + String.format("%" + (15 - String.valueOf(plugin.getConfigManager().getSettings().getMoneyPerSleep()).length()) + "s", "") + "&6║");
+        MessageUtils.sendMessage(sender, "&6║ &fXP per Sleep: &b" + plugin.getConfigManager().getSettings().getXpPerSleep() + " XP" + String.format("%" + (15 - String.valueOf(plugin.getConfigManager().getSettings().getXpPerSleep()).length()) + "s", "") + "&6║");
+        MessageUtils.sendMessage(sender, "&6║ &fRewards Status: " + (plugin.getConfigManager().getSettings().areRewardsEnabled() ? "&aEnabled" : "&cDisabled") + String.format("%" + (17 - (plugin.getConfigManager().getSettings().areRewardsEnabled() ? "Enabled" : "Disabled").length()) + "s", "") + "&6║");
         MessageUtils.sendMessage(sender, "&6╚═══════════════════════════════════════════╝");
         return true;
     }
     
+    /**
+     * Handle the claim subcommand
+     */
+    private boolean handleClaimCommand(CommandSender sender) {
+        if (!(sender instanceof Player)) {
+            MessageUtils.sendMessage(sender, "&cThis command can only be used by players!");
+            return true;
+        }
+        
+        plugin.getRewardMailbox().claim((Player) sender);
+        return true;
+    }
+    
     /**
      * Handle the achievements subcommand
      */
@@ -419,7 +471,9 @@ public class SleepCommand implements CommandExecutor, TabCompleter {
         MessageUtils.sendMessage(sender, "&6║ &e/sleep setday <X> &7- Set day counter     &6║");
         MessageUtils.sendMessage(sender, "&6║ &e/sleep resetday &7- Reset to Day 1        &6║");
         MessageUtils.sendMessage(sender, "&6║ &e/sleep stats &7- View plugin statistics  &6║");
+        MessageUtils.sendMessage(sender, "&6║ &e/sleep perf &7- Subsystem tick timings   &6║");
         MessageUtils.sendMessage(sender, "&6║ &e/sleep rewards &7- View reward info       &6║");
+        MessageUtils.sendMessage(sender, "&6║ &e/sleep claim &7- Claim mailbox rewards    &6║");
         MessageUtils.sendMessage(sender, "&6║ &e/sleep achievements &7- View achievements  &6║");
         MessageUtils.sendMessage(sender, "&6║ &e/sleep update &7- Check for updates      &6║");
         MessageUtils.sendMessage(sender, "&6║ &e/sleep help &7- Show this matrix         &6║");
@@ -442,12 +496,13 @@ public class SleepCommand implements CommandExecutor, TabCompleter {
             
             // Add admin commands
             if (sender.hasPermission("easysleep.admin")) {
-                subCommands.addAll(Arrays.asList("set", "get", "status", "reset", "reload", "setday", "resetday", "stats", "update"));
+                subCommands.addAll(Arrays.asList("set", "get", "status", "reset", "reload", "setday", "resetday", "stats", "perf", "update"));
             }
             
             // Add user commands
             if (sender.hasPermission("easysleep.rewards")) {
                 subCommands.add("rewards");
+                subCommands.add("claim");
             }
             if (sender.hasPermission("easysleep.achievements")) {
                 subCommands.add("achievements");
@@ -0,0 +1,39 @@
+package com.turjo.easysleep.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Called when EasySleep marks a player as AFK or no longer AFK
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class EasySleepAFKChangeEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final boolean afk;
+
+    public EasySleepAFKChangeEvent(Player player, boolean afk) {
+        super(player);
+        this.afk = afk;
+    }
+
+    /**
+     * Check if the player is now AFK
+     */
+    public boolean isAFK() {
+        return afk;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
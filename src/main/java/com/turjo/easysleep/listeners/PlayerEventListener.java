@@ -1,9 +1,16 @@
 package com.turjo.easysleep.listeners;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.managers.AFKManager;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -27,9 +34,20 @@ public class PlayerEventListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         
+        // Start tracking AFK and sleep state
+        plugin.getAFKManager().trackPlayer(player);
+        plugin.getSleepStateIndex().trackPlayer(player);
+        
         // Update statistics
         plugin.getStatisticsManager().updatePlayerCount(plugin.getServer().getOnlinePlayers().size());
         
+        // Load achievement and streak data off the main thread
+        plugin.getSleepAchievementManager().loadPlayer(player);
+        plugin.getRewardsManager().loadPlayer(player);
+        
+        // Hand over rewards that did not fit last time
+        plugin.getRewardMailbox().onJoin(player);
+        
         // Check for updates (admin only)
         if (player.hasPermission("easysleep.admin")) {
             if (plugin.getUpdateChecker().isUpdateAvailable()) {
@@ -42,18 +60,68 @@ public class PlayerEventListener implements Listener {
         }
     }
     
-    @EventHandler
+    @EventHandler(ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        
+        // Most move packets stay inside the same block without turning the head
+        if (to == null || (from.getBlockX() == to.getBlockX()
+                && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ()
+                && from.getYaw() == to.getYaw()
+                && from.getPitch() == to.getPitch())) {
+            return;
+        }
+        
         // Update AFK status
-        plugin.getAFKManager().updateActivity(event.getPlayer());
+        long start = plugin.getPerformanceMonitor().start();
+        plugin.getAFKManager().updateActivity(event.getPlayer(), to);
+        plugin.getPerformanceMonitor().stop("MoveEvent", start);
+    }
+    
+    @EventHandler
+    public void onPlayerChat(AsyncPlayerChatEvent event) {
+        // Chat arrives off the main thread
+        Player player = event.getPlayer();
+        plugin.getServer().getScheduler().runTask(plugin,
+            () -> plugin.getAFKManager().recordActivity(player, AFKManager.ActivitySignal.CHAT));
+    }
+    
+    @EventHandler
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        plugin.getAFKManager().recordActivity(event.getPlayer(), AFKManager.ActivitySignal.COMMAND);
+    }
+    
+    @EventHandler
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        plugin.getAFKManager().recordActivity(event.getPlayer(), AFKManager.ActivitySignal.INTERACT);
+    }
+    
+    @EventHandler
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player) {
+            plugin.getAFKManager().recordActivity((Player) event.getWhoClicked(), AFKManager.ActivitySignal.INVENTORY);
+        }
+    }
+    
+    @EventHandler
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        plugin.getSleepStateIndex().updateWorld(event.getPlayer());
     }
     
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         
+        // Hand over anything still queued before the player leaves
+        plugin.getRewardDistributor().flush(player);
+        
         // Clean up tracking data
         plugin.getAFKManager().removePlayer(player);
         plugin.getAntiSpamManager().removePlayer(player);
+        plugin.getSleepStateIndex().untrackPlayer(player);
+        plugin.getSleepAchievementManager().unloadPlayer(player);
+        plugin.getRewardsManager().unloadPlayer(player);
     }
 }
\ No newline at end of file
@@ -2,17 +2,21 @@ package com.turjo.easysleep.listeners;
 
 import com.turjo.easysleep.EasySleep;
 import com.turjo.easysleep.managers.AnimationManager;
+import com.turjo.easysleep.managers.MessageCategory;
+import com.turjo.easysleep.managers.RewardPlan;
 import com.turjo.easysleep.utils.MessageUtils;
 import org.bukkit.GameRule;
 import org.bukkit.Statistic;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerBedEnterEvent;
 import org.bukkit.event.player.PlayerBedLeaveEvent;
 import org.bukkit.event.world.TimeSkipEvent;
 import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.List;
@@ -36,8 +40,42 @@ public class SleepEventListener implements Listener {
         this.animationManager = plugin.getAnimationManager();
     }
     
+    /**
+     * Track sleep state early so handlers below see the new sleeper in the counts
+     */
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onPlayerBedEnterTrack(PlayerBedEnterEvent event) {
+        if (event.getBedEnterResult() == PlayerBedEnterEvent.BedEnterResult.OK) {
+            plugin.getSleepStateIndex().setSleeping(event.getPlayer(), true);
+        }
+    }
+    
+    /**
+     * Undo the tracked state if another plugin cancelled the bed enter
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerBedEnterVerify(PlayerBedEnterEvent event) {
+        if (event.isCancelled() || event.getBedEnterResult() != PlayerBedEnterEvent.BedEnterResult.OK) {
+            plugin.getSleepStateIndex().setSleeping(event.getPlayer(), false);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerBedLeaveTrack(PlayerBedLeaveEvent event) {
+        plugin.getSleepStateIndex().setSleeping(event.getPlayer(), false);
+    }
+    
     @EventHandler
     public void onPlayerBedEnter(PlayerBedEnterEvent event) {
+        long start = plugin.getPerformanceMonitor().start();
+        try {
+            handleBedEnter(event);
+        } finally {
+            plugin.getPerformanceMonitor().stop("BedEnterEvent", start);
+        }
+    }
+    
+    private void handleBedEnter(PlayerBedEnterEvent event) {
         if (event.getBedEnterResult() != PlayerBedEnterEvent.BedEnterResult.OK) {
             return;
         }
@@ -60,17 +98,17 @@ public class SleepEventListener implements Listener {
         // Check moon phase achievements
         com.turjo.easysleep.managers.MoonPhaseManager.MoonPhase moonPhase = plugin.getMoonPhaseManager().getCurrentMoonPhase(world);
         if (moonPhase != null && player.hasPermission("easysleep.achievements")) {
-            plugin.getSleepAchievementManager().checkMoonPhaseAchievements(player, moonPhase.name());
+            plugin.getSleepAchievementManager().checkMoonPhaseAchievements(player, moonPhase);
         }
         
+        // Start time acceleration if enabled (one shared driver per world)
+        plugin.getTimeAccelerationManager().startAcceleration(world);
+        
         // Check anti-spam
         if (!plugin.getAntiSpamManager().canSendSleepMessage(player)) {
             return;
         }
         
-        // Start time acceleration if enabled
-        startTimeAcceleration(world);
-        
         // Start sleep animation if animations are enabled
         if (plugin.getConfigManager().areAnimationsEnabled()) {
             // Delay animation start slightly to ensure player is properly in bed
@@ -94,7 +132,7 @@ public class SleepEventListener implements Listener {
         int requiredPlayers = (int) Math.ceil((sleepPercentage != null ? sleepPercentage : 50) * activePlayers / 100.0);
         
         // Broadcast sleep status if enabled
-        if (plugin.getConfigManager().isMessageCategoryEnabled("sleep-messages")) {
+        if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.SLEEP_MESSAGES)) {
             String sleepMessage = plugin.getConfigManager().getMessage("sleep.player-sleeping",
                 "%player%", player.getName(),
                 "%sleeping%", String.valueOf(sleepingPlayers),
@@ -108,66 +146,31 @@ public class SleepEventListener implements Listener {
         }
     }
     
-    /**
-     * Start time acceleration when any player sleeps
-     */
-    private void startTimeAcceleration(World world) {
-        double acceleration = plugin.getConfigManager().getConfig().getDouble("sleep.time-acceleration", 1.75);
-        
-        if (acceleration > 1.0) {
-            // Start time acceleration task
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (getSleepingPlayerCount(world) == 0) {
-                        cancel();
-                        return;
-                    }
-                    
-                    // Accelerate time
-                    long currentTime = world.getTime();
-                    long newTime = currentTime + (long) (20 * (acceleration - 1.0));
-                    world.setTime(newTime);
-                }
-            }.runTaskTimer(plugin, 0L, 1L);
-            
-            // Broadcast acceleration message
-            if (plugin.getConfigManager().isMessageCategoryEnabled("time-acceleration")) {
-                String accelMessage = plugin.getConfigManager().getMessage("time-acceleration.flowing-faster",
-                    "%speed%", String.format("%.1f", acceleration));
-                MessageUtils.broadcastToWorld(world, accelMessage);
-            }
-        }
-    }
-    
     /**
      * Get count of sleeping players (excluding AFK)
      */
     private int getSleepingPlayerCount(World world) {
-        int count = 0;
-        for (Player player : world.getPlayers()) {
-            if (player.isSleeping() && !plugin.getAFKManager().isPlayerAFK(player)) {
-                count++;
-            }
-        }
-        return count;
+        return plugin.getSleepStateIndex().getSleepingCount(world);
     }
     
     /**
      * Get count of active players (excluding AFK)
      */
     private int getActivePlayerCount(World world) {
-        int count = 0;
-        for (Player player : world.getPlayers()) {
-            if (!plugin.getAFKManager().isPlayerAFK(player)) {
-                count++;
-            }
-        }
-        return count;
+        return plugin.getSleepStateIndex().getActiveCount(world);
     }
     
     @EventHandler
     public void onPlayerBedLeave(PlayerBedLeaveEvent event) {
+        long start = plugin.getPerformanceMonitor().start();
+        try {
+            handleBedLeave(event);
+        } finally {
+            plugin.getPerformanceMonitor().stop("BedLeaveEvent", start);
+        }
+    }
+    
+    private void handleBedLeave(PlayerBedLeaveEvent event) {
         Player player = event.getPlayer();
         World world = player.getWorld();
         
@@ -187,7 +190,7 @@ public class SleepEventListener implements Listener {
         int sleepingPlayers = getSleepingPlayerCount(world);
         
         // Broadcast wake up message if enabled
-        if (plugin.getConfigManager().isMessageCategoryEnabled("sleep-messages")) {
+        if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.SLEEP_MESSAGES)) {
             String wakeMessage = plugin.getConfigManager().getMessage("sleep.player-waking",
                 "%player%", player.getName(),
                 "%sleeping%", String.valueOf(sleepingPlayers),
@@ -199,6 +202,15 @@ public class SleepEventListener implements Listener {
     
     @EventHandler
     public void onTimeSkip(TimeSkipEvent event) {
+        long start = plugin.getPerformanceMonitor().start();
+        try {
+            handleTimeSkip(event);
+        } finally {
+            plugin.getPerformanceMonitor().stop("TimeSkipEvent", start);
+        }
+    }
+    
+    private void handleTimeSkip(TimeSkipEvent event) {
         if (event.getSkipReason() == TimeSkipEvent.SkipReason.NIGHT_SKIP) {
             World world = event.getWorld();
             
@@ -221,8 +233,8 @@ public class SleepEventListener implements Listener {
             }
             
             // Broadcast night skip message
-            double acceleration = plugin.getConfigManager().getConfig().getDouble("sleep.time-acceleration", 1.75);
-            if (plugin.getConfigManager().isMessageCategoryEnabled("night-skip-messages")) {
+            double acceleration = plugin.getConfigManager().getSettings().getTimeAcceleration();
+            if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.NIGHT_SKIP_MESSAGES)) {
                 String skipMessage = plugin.getConfigManager().getMessage("night-skip.announcement",
                     "%speed%", String.format("%.1f", acceleration));
                 MessageUtils.broadcastToWorld(world, skipMessage);
@@ -234,49 +246,45 @@ public class SleepEventListener implements Listener {
      * Give morning effects to all players in world
      */
     private void giveMorningEffects(World world) {
-        if (!plugin.getConfigManager().getConfig().getBoolean("rewards.effects.enabled", true)) {
+        if (!plugin.getConfigManager().getSettings().areEffectRewardsEnabled()) {
             return;
         }
         
-        List<String> morningEffects = plugin.getConfigManager().getConfig().getStringList("rewards.effects.morning-effects");
+        List<RewardPlan.EffectReward> morningEffects = plugin.getRewardsManager().getRewardPlan().getMorningEffects();
+        if (morningEffects.isEmpty()) {
+            return;
+        }
         
         for (Player player : world.getPlayers()) {
-            for (String effectString : morningEffects) {
-                org.bukkit.potion.PotionEffect effect = parseEffectString(effectString);
-                if (effect != null) {
-                    player.addPotionEffect(effect);
+            plugin.getRewardDistributor().submit(player, p -> {
+                for (RewardPlan.EffectReward effect : morningEffects) {
+                    p.addPotionEffect(effect.getEffect());
                 }
-            }
+            });
         }
     }
     
-    /**
-     * Parse effect string format: "EFFECT_NAME:DURATION:AMPLIFIER"
-     */
-    private org.bukkit.potion.PotionEffect parseEffectString(String effectString) {
-        try {
-            String[] parts = effectString.split(":");
-            org.bukkit.potion.PotionEffectType effectType = org.bukkit.potion.PotionEffectType.getByName(parts[0].toUpperCase());
-            int duration = parts.length > 1 ? Integer.parseInt(parts[1]) * 20 : 600; // Convert to ticks
-            int amplifier = parts.length > 2 ? Integer.parseInt(parts[2]) : 0;
-            
-            if (effectType != null) {
-                return new org.bukkit.potion.PotionEffect(effectType, duration, amplifier);
-            }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Invalid effect format: " + effectString);
-        }
-        return null;
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTimeSkipCount(TimeSkipEvent event) {
+        // Any skip reason can carry the clock past one or more sunrises
+        plugin.getDayCounterManager().onTimeSkip(event.getWorld(), event.getSkipAmount());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        // Slot owners clear their per-world state through the registry
+        plugin.getWorldRegistry().unregister(event.getWorld());
     }
     
     @EventHandler
     public void onWorldLoad(WorldLoadEvent event) {
         World world = event.getWorld();
+        plugin.getWorldRegistry().register(world);
         
         // Auto-configure new worlds with default sleep percentage
-        if (plugin.getConfigManager().getConfig().getBoolean("sleep.auto-configure-new-worlds", true)) {
+        if (plugin.getConfigManager().getSettings().isAutoConfigureNewWorlds()) {
             Integer currentPercentage = world.getGameRuleValue(GameRule.PLAYERS_SLEEPING_PERCENTAGE);
-            int defaultPercentage = plugin.getConfigManager().getConfig().getInt("sleep.default-percentage", 50);
+            int defaultPercentage = plugin.getConfigManager().getSettings().getDefaultPercentage();
             
             if (currentPercentage == null || currentPercentage != defaultPercentage) {
                 world.setGameRule(GameRule.PLAYERS_SLEEPING_PERCENTAGE, defaultPercentage);
@@ -1,99 +1,253 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.events.EasySleepAFKChangeEvent;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 /**
  * Advanced AFK Detection System
  * Tracks player movement and activity to determine AFK status
- * 
+ *
+ * Activity comes from several signals (movement, rotation, chat, commands,
+ * interaction and inventory clicks). Movement while riding or floating in
+ * water does not count, and rotation only counts when it is varied enough
+ * not to be a macro. Each player's AFK deadline sits in a two-level timing
+ * wheel, so the once-per-second check only touches players that are due.
+ *
  * @author Turjo
- * @version 1.4.1
+ * @version 1.5.2
  */
 public class AFKManager {
-    
+
+    /**
+     * Kinds of player activity that reset the AFK deadline
+     */
+    public enum ActivitySignal {
+        MOVE,
+        ROTATION,
+        CHAT,
+        COMMAND,
+        INTERACT,
+        INVENTORY
+    }
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS; // 64 seconds, then 64 x 64 seconds
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final int ROTATION_SAMPLES = 16;
+    private static final double MIN_ROTATION_ENTROPY = 1.5; // Bits; a fixed-step macro scores 0
+
     private final EasySleep plugin;
     private final Map<UUID, PlayerActivity> playerActivity;
-    private final Map<UUID, Boolean> afkPlayers;
-    
+    private final List<List<PlayerActivity>> seconds;
+    private final List<List<PlayerActivity>> minutes;
+    private List<PlayerActivity> spare;
+    private long now;
+
     public AFKManager(EasySleep plugin) {
         this.plugin = plugin;
         this.playerActivity = new HashMap<>();
-        this.afkPlayers = new HashMap<>();
+        this.seconds = new ArrayList<>(WHEEL_SIZE);
+        this.minutes = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            seconds.add(new ArrayList<>());
+            minutes.add(new ArrayList<>());
+        }
+        this.spare = new ArrayList<>();
+
+        // Players already online after a reload
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            trackPlayer(player);
+        }
         startAFKChecker();
     }
-    
+
     /**
-     * Update player activity
+     * Start tracking a player (join)
      */
-    public void updateActivity(Player player) {
+    public void trackPlayer(Player player) {
+        if (playerActivity.containsKey(player.getUniqueId())) {
+            return;
+        }
+        PlayerActivity activity = new PlayerActivity(player);
+        activity.moveTo(player.getLocation());
+        activity.deadline = now + getAFKThreshold();
+        playerActivity.put(player.getUniqueId(), activity);
+        schedule(activity);
+    }
+
+    /**
+     * Update player activity from a location they moved to
+     *
+     * Only reads primitives from the location, so move events can pass
+     * getTo() straight through without cloning.
+     */
+    public void updateActivity(Player player, Location location) {
         if (!plugin.getConfigManager().isAFKDetectionEnabled()) {
             return;
         }
-        
-        UUID uuid = player.getUniqueId();
-        Location currentLoc = player.getLocation();
-        long currentTime = System.currentTimeMillis();
-        
-        PlayerActivity activity = playerActivity.get(uuid);
+
+        PlayerActivity activity = playerActivity.get(player.getUniqueId());
         if (activity == null) {
-            activity = new PlayerActivity(currentLoc, currentTime);
-            playerActivity.put(uuid, activity);
-        } else {
-            // Check if player moved significantly (with world safety check)
-            if (isSameWorld(activity.lastLocation, currentLoc) && 
-                activity.lastLocation.distance(currentLoc) > 1.0) {
-                activity.lastLocation = currentLoc;
-                activity.lastActivity = currentTime;
-                
-                // Remove from AFK if they were AFK
-                if (afkPlayers.getOrDefault(uuid, false)) {
-                    afkPlayers.put(uuid, false);
-                    if (plugin.getConfigManager().isDebugMode()) {
-                        plugin.getLogger().info(player.getName() + " is no longer AFK");
-                    }
-                }
-            } else if (!isSameWorld(activity.lastLocation, currentLoc)) {
-                // Player changed worlds - update location without distance check
-                activity.lastLocation = currentLoc;
-                activity.lastActivity = currentTime;
-            }
+            return;
+        }
+
+        UUID world = location.getWorld() != null ? location.getWorld().getUID() : null;
+        if (world == null || !world.equals(activity.world)) {
+            // Player changed worlds - update location without distance check
+            activity.moveTo(location);
+            credit(activity);
+            return;
+        }
+
+        // Check if player moved more than a block or turned their head
+        double dx = location.getX() - activity.x;
+        double dy = location.getY() - activity.y;
+        double dz = location.getZ() - activity.z;
+        boolean moved = dx * dx + dy * dy + dz * dz > 1.0;
+
+        float yawDelta = location.getYaw() - activity.yaw;
+        float pitchDelta = location.getPitch() - activity.pitch;
+        boolean turned = yawDelta != 0 || pitchDelta != 0;
+
+        if (turned) {
+            activity.addRotation(yawDelta, pitchDelta);
+        }
+        if (moved) {
+            activity.moveTo(location);
+        } else if (turned) {
+            activity.yaw = location.getYaw();
+            activity.pitch = location.getPitch();
+        }
+
+        // Water currents and vehicles move players without any input
+        boolean passive = player.isInsideVehicle() || player.isInWater();
+        if ((moved && !passive) || (turned && activity.rotationEntropy() >= MIN_ROTATION_ENTROPY)) {
+            credit(activity);
         }
     }
-    
+
     /**
-     * Check if two locations are in the same world (Multiverse compatibility)
+     * Record a non-movement activity signal (chat, command, interaction, inventory)
      */
-    private boolean isSameWorld(Location loc1, Location loc2) {
-        if (loc1 == null || loc2 == null) {
-            return false;
+    public void recordActivity(Player player, ActivitySignal signal) {
+        if (!plugin.getConfigManager().isAFKDetectionEnabled()) {
+            return;
         }
-        if (loc1.getWorld() == null || loc2.getWorld() == null) {
-            return false;
+
+        PlayerActivity activity = playerActivity.get(player.getUniqueId());
+        if (activity != null) {
+            credit(activity);
         }
-        return loc1.getWorld().equals(loc2.getWorld());
     }
-    
+
+    /**
+     * Push a player's AFK deadline back and clear their AFK state
+     */
+    private void credit(PlayerActivity activity) {
+        activity.deadline = now + getAFKThreshold();
+
+        // Remove from AFK if they were AFK
+        if (activity.afk) {
+            setAFK(activity, false);
+        }
+
+        // Active players stay in the wheel; their entry is re-filed lazily when its slot comes up
+        if (!activity.scheduled) {
+            schedule(activity);
+        }
+    }
+
+    /**
+     * Change a player's AFK state and tell everyone who cares
+     */
+    private void setAFK(PlayerActivity activity, boolean afk) {
+        activity.afk = afk;
+        plugin.getSleepStateIndex().setAFK(activity.player, afk);
+        plugin.getServer().getPluginManager().callEvent(new EasySleepAFKChangeEvent(activity.player, afk));
+
+        if (plugin.getConfigManager().isDebugMode()) {
+            plugin.getLogger().info(activity.player.getName() + (afk ? " is now AFK" : " is no longer AFK"));
+        }
+    }
+
     /**
      * Check if player is AFK
      */
     public boolean isPlayerAFK(Player player) {
-        return afkPlayers.getOrDefault(player.getUniqueId(), false);
+        PlayerActivity activity = playerActivity.get(player.getUniqueId());
+        return activity != null && activity.afk;
     }
-    
+
     /**
-     * Get AFK threshold in milliseconds
+     * Get AFK threshold in seconds
      */
     private long getAFKThreshold() {
-        return plugin.getConfigManager().getAFKThreshold() * 60 * 1000L; // Convert minutes to milliseconds
+        return plugin.getConfigManager().getAFKThreshold() * 60L; // Convert minutes to seconds
     }
-    
+
+    /**
+     * File a player under their deadline
+     */
+    private void schedule(PlayerActivity activity) {
+        long delay = activity.deadline - now;
+        if (delay < WHEEL_SIZE) {
+            seconds.get((int) (Math.max(activity.deadline, now + 1) & WHEEL_MASK)).add(activity);
+        } else {
+            // Deadlines past the outer wheel wait in its last slot and are re-filed from there
+            long slot = Math.min(activity.deadline >> WHEEL_BITS, (now >> WHEEL_BITS) + WHEEL_MASK);
+            minutes.get((int) (slot & WHEEL_MASK)).add(activity);
+        }
+        activity.scheduled = true;
+    }
+
+    /**
+     * Advance the wheel by one second
+     */
+    private void advance() {
+        now++;
+
+        // Move the next 64 seconds of deadlines down from the outer wheel
+        if ((now & WHEEL_MASK) == 0) {
+            expire(minutes, (int) ((now >> WHEEL_BITS) & WHEEL_MASK));
+        }
+        expire(seconds, (int) (now & WHEEL_MASK));
+    }
+
+    /**
+     * Process one wheel slot: mark expired players AFK and re-file the rest
+     */
+    private void expire(List<List<PlayerActivity>> wheel, int slot) {
+        List<PlayerActivity> due = wheel.get(slot);
+        wheel.set(slot, spare);
+
+        for (int i = 0; i < due.size(); i++) {
+            PlayerActivity activity = due.get(i);
+            activity.scheduled = false;
+            if (activity.removed || activity.afk) {
+                continue;
+            }
+
+            if (activity.deadline <= now) {
+                setAFK(activity, true);
+            } else {
+                schedule(activity);
+            }
+        }
+
+        due.clear();
+        spare = due;
+    }
+
     /**
      * Start AFK checking task
      */
@@ -104,67 +258,113 @@ public class AFKManager {
                 if (!plugin.getConfigManager().isAFKDetectionEnabled()) {
                     return;
                 }
-                
-                long currentTime = System.currentTimeMillis();
-                long threshold = getAFKThreshold();
-                
-                for (Player player : plugin.getServer().getOnlinePlayers()) {
-                    UUID uuid = player.getUniqueId();
-                    PlayerActivity activity = playerActivity.get(uuid);
-                    
-                    if (activity != null) {
-                        boolean wasAFK = afkPlayers.getOrDefault(uuid, false);
-                        boolean isNowAFK = (currentTime - activity.lastActivity) > threshold;
-                        
-                        if (!wasAFK && isNowAFK) {
-                            afkPlayers.put(uuid, true);
-                            if (plugin.getConfigManager().isDebugMode()) {
-                                plugin.getLogger().info(player.getName() + " is now AFK");
-                            }
-                        }
-                    } else {
-                        // Initialize activity for new players
-                        updateActivity(player);
-                    }
-                }
+
+                long start = plugin.getPerformanceMonitor().start();
+                advance();
+                plugin.getPerformanceMonitor().stop("AFK", start);
             }
-        }.runTaskTimer(plugin, 200L, 200L); // Check every 10 seconds
+        }.runTaskTimer(plugin, 20L, 20L); // Advance the wheel every second
     }
-    
+
     /**
      * Remove player from tracking
      */
     public void removePlayer(Player player) {
-        UUID uuid = player.getUniqueId();
-        playerActivity.remove(uuid);
-        afkPlayers.remove(uuid);
+        PlayerActivity activity = playerActivity.remove(player.getUniqueId());
+        if (activity != null) {
+            // Dropped from the wheel when its slot comes up
+            activity.removed = true;
+        }
     }
-    
+
     /**
      * Get total AFK players count
      */
     public int getAFKCount() {
-        return (int) afkPlayers.values().stream().mapToInt(afk -> afk ? 1 : 0).sum();
+        int count = 0;
+        for (PlayerActivity activity : playerActivity.values()) {
+            if (activity.afk) {
+                count++;
+            }
+        }
+        return count;
     }
-    
+
     /**
      * Cleanup method
      */
     public void cleanup() {
         playerActivity.clear();
-        afkPlayers.clear();
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            seconds.get(i).clear();
+            minutes.get(i).clear();
+        }
     }
-    
+
     /**
-     * Player activity data class
+     * Player activity data class (primitive copy of the last position)
      */
     private static class PlayerActivity {
-        Location lastLocation;
-        long lastActivity;
-        
-        PlayerActivity(Location location, long time) {
-            this.lastLocation = location;
-            this.lastActivity = time;
+        final Player player;
+        UUID world;
+        double x;
+        double y;
+        double z;
+        float yaw;
+        float pitch;
+        long deadline;
+        boolean afk;
+        boolean scheduled;
+        boolean removed;
+
+        // Recent rotation directions, 8 yaw sectors x pitch up/down
+        final byte[] rotations = new byte[ROTATION_SAMPLES];
+        final int[] rotationCounts = new int[16];
+        int rotationIndex;
+        int rotationSamples;
+
+        PlayerActivity(Player player) {
+            this.player = player;
+        }
+
+        void moveTo(Location location) {
+            this.world = location.getWorld() != null ? location.getWorld().getUID() : null;
+            this.x = location.getX();
+            this.y = location.getY();
+            this.z = location.getZ();
+            this.yaw = location.getYaw();
+            this.pitch = location.getPitch();
+        }
+
+        void addRotation(float yawDelta, float pitchDelta) {
+            float normalized = ((yawDelta % 360) + 540) % 360 - 180;
+            int bucket = ((int) ((normalized + 180) / 45) & 7) | (pitchDelta > 0 ? 8 : 0);
+
+            if (rotationSamples == ROTATION_SAMPLES) {
+                rotationCounts[rotations[rotationIndex]]--;
+            } else {
+                rotationSamples++;
+            }
+            rotations[rotationIndex] = (byte) bucket;
+            rotationCounts[bucket]++;
+            rotationIndex = (rotationIndex + 1) % ROTATION_SAMPLES;
+        }
+
+        /**
+         * Shannon entropy of recent rotation directions in bits
+         */
+        double rotationEntropy() {
+            if (rotationSamples < 4) {
+                return Double.MAX_VALUE; // Not enough samples to judge yet
+            }
+            double entropy = 0;
+            for (int count : rotationCounts) {
+                if (count > 0) {
+                    double p = (double) count / rotationSamples;
+                    entropy -= p * Math.log(p) / Math.log(2);
+                }
+            }
+            return entropy;
         }
     }
-}
\ No newline at end of file
+}
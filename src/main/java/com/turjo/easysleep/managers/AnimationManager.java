@@ -1,15 +1,13 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
-import com.turjo.easysleep.utils.MessageUtils;
+import com.turjo.easysleep.utils.BroadcastBatch;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,7 +23,7 @@ import java.util.Random;
 public class AnimationManager {
     
     private final EasySleep plugin;
-    private final Map<Player, BukkitTask> activeAnimations;
+    private final Map<Player, ScheduledEffect> activeAnimations;
     private final Random random;
     
     public AnimationManager(EasySleep plugin) {
@@ -44,7 +42,7 @@ public class AnimationManager {
         
         stopAnimation(player);
         
-        BukkitTask task = new BukkitRunnable() {
+        ScheduledEffect task = new ScheduledEffect() {
             int ticks = 0;
             
             @Override
@@ -71,7 +69,7 @@ public class AnimationManager {
                     cancel();
                 }
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 0L, 1L);
         
         activeAnimations.put(player, task);
     }
@@ -90,10 +88,10 @@ public class AnimationManager {
         // Modern particle choice based on config
         try {
             Particle sleepParticle = Particle.valueOf(plugin.getConfigManager().getSleepParticle());
-            player.getWorld().spawnParticle(sleepParticle, particleLoc, 1, 0.02, 0.02, 0.02, 0.001);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, sleepParticle, particleLoc, 1, 0.02, 0.02, 0.02, 0.001);
         } catch (IllegalArgumentException e) {
             // Fallback to modern particle
-            player.getWorld().spawnParticle(Particle.SOUL_FIRE_FLAME, particleLoc, 1, 0.02, 0.02, 0.02, 0.001);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.SOUL_FIRE_FLAME, particleLoc, 1, 0.02, 0.02, 0.02, 0.001);
         }
     }
     
@@ -124,24 +122,26 @@ public class AnimationManager {
         }
         
         // Check if night skip messages are enabled
-        if (plugin.getConfigManager().isMessageCategoryEnabled("night-skip-messages")) {
-            MessageUtils.broadcastToWorld(world, "");
-            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("night-skip.protocol-activated"));
-            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("night-skip.time-acceleration-progress"));
-            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-            MessageUtils.broadcastToWorld(world, "");
+        if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.NIGHT_SKIP_MESSAGES)) {
+            BroadcastBatch.toWorld(world)
+                .line("")
+                .line(plugin.getConfigManager().getBorderLine())
+                .line(plugin.getConfigManager().getMessage("night-skip.protocol-activated"))
+                .line(plugin.getConfigManager().getMessage("night-skip.time-acceleration-progress"))
+                .line(plugin.getConfigManager().getBorderLine())
+                .line("")
+                .send();
         }
         
         // Start minimal animation
         startModernNightSkipSequence(world);
         
-        // Individual player effects
+        // Individual player effects, spread over a few ticks on busy worlds
         for (Player player : world.getPlayers()) {
             if (player.isSleeping()) {
-                startModernDreamEffect(player);
+                plugin.getRewardDistributor().submit(player, this::startModernDreamEffect);
             } else {
-                startModernAwakeEffect(player);
+                plugin.getRewardDistributor().submit(player, this::startModernAwakeEffect);
             }
         }
     }
@@ -150,7 +150,7 @@ public class AnimationManager {
      * Modern night skip sequence - ultra-minimal
      */
     private void startModernNightSkipSequence(World world) {
-        new BukkitRunnable() {
+        new ScheduledEffect() {
             int phase = 0;
             int ticks = 0;
             
@@ -183,19 +183,21 @@ public class AnimationManager {
                     
                     if (phase >= 2) {
                         // Check if night skip messages are enabled
-                        if (plugin.getConfigManager().isMessageCategoryEnabled("night-skip-messages")) {
-                            MessageUtils.broadcastToWorld(world, "");
-                            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-                            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("night-skip.protocol-complete"));
-                            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("night-skip.new-dawn"));
-                            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-                            MessageUtils.broadcastToWorld(world, "");
+                        if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.NIGHT_SKIP_MESSAGES)) {
+                            BroadcastBatch.toWorld(world)
+                                .line("")
+                                .line(plugin.getConfigManager().getBorderLine())
+                                .line(plugin.getConfigManager().getMessage("night-skip.protocol-complete"))
+                                .line(plugin.getConfigManager().getMessage("night-skip.new-dawn"))
+                                .line(plugin.getConfigManager().getBorderLine())
+                                .line("")
+                                .send();
                         }
                         cancel();
                     }
                 }
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 0L, 1L);
     }
     
     /**
@@ -212,7 +214,7 @@ public class AnimationManager {
         Location vortexLoc = center.clone().add(x, y, z);
         
         // Modern particle
-        player.getWorld().spawnParticle(Particle.SOUL_FIRE_FLAME, vortexLoc, 1, 0, 0, 0, 0);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.SOUL_FIRE_FLAME, vortexLoc, 1, 0, 0, 0, 0);
         
         // Sound effect only once
         if (ticks == 0) {
@@ -232,7 +234,7 @@ public class AnimationManager {
                 double z = Math.sin(angle) * 0.8;
                 Location burstLoc = center.clone().add(x, 0, z);
                 
-                player.getWorld().spawnParticle(Particle.TOTEM, burstLoc, 1, 0.1, 0.1, 0.1, 0.02);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.HIGH, Particle.TOTEM, burstLoc, 1, 0.1, 0.1, 0.1, 0.02);
             }
             
             // Completion sound
@@ -244,7 +246,7 @@ public class AnimationManager {
      * Modern dream effect for sleeping players
      */
     private void startModernDreamEffect(Player player) {
-        new BukkitRunnable() {
+        new ScheduledEffect() {
             int ticks = 0;
             
             @Override
@@ -257,7 +259,7 @@ public class AnimationManager {
                 // Single gentle particle every 20 ticks
                 if (ticks % 20 == 0) {
                     Location loc = player.getLocation().add(0, 1.5, 0);
-                    player.getWorld().spawnParticle(Particle.SOUL_FIRE_FLAME, loc, 1, 0.1, 0.1, 0.1, 0.001);
+                    plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.SOUL_FIRE_FLAME, loc, 1, 0.1, 0.1, 0.1, 0.001);
                 }
                 
                 ticks++;
@@ -265,14 +267,14 @@ public class AnimationManager {
                     cancel();
                 }
             }
-        }.runTaskTimer(plugin, 10L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 10L, 1L);
     }
     
     /**
      * Modern awake effect - very subtle
      */
     private void startModernAwakeEffect(Player player) {
-        new BukkitRunnable() {
+        new ScheduledEffect() {
             int ticks = 0;
             
             @Override
@@ -289,7 +291,7 @@ public class AnimationManager {
                     double z = (random.nextDouble() - 0.5) * 0.4;
                     Location particleLoc = loc.clone().add(x, 0, z);
                     
-                    player.getWorld().spawnParticle(Particle.END_ROD, particleLoc, 1, 0.02, 0.02, 0.02, 0.001);
+                    plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.END_ROD, particleLoc, 1, 0.02, 0.02, 0.02, 0.001);
                 }
                 
                 ticks++;
@@ -297,7 +299,7 @@ public class AnimationManager {
                     cancel();
                 }
             }
-        }.runTaskTimer(plugin, 20L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 20L, 1L);
     }
     
     /**
@@ -314,7 +316,7 @@ public class AnimationManager {
      * Stop animation for a specific player
      */
     public void stopAnimation(Player player) {
-        BukkitTask task = activeAnimations.remove(player);
+        ScheduledEffect task = activeAnimations.remove(player);
         if (task != null && !task.isCancelled()) {
             task.cancel();
         }
@@ -324,7 +326,7 @@ public class AnimationManager {
      * Stop all animations
      */
     public void stopAllAnimations() {
-        for (BukkitTask task : activeAnimations.values()) {
+        for (ScheduledEffect task : activeAnimations.values()) {
             if (task != null && !task.isCancelled()) {
                 task.cancel();
             }
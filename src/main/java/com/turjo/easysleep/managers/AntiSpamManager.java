@@ -2,135 +2,193 @@ package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Advanced Anti-Spam Protection System
  * Prevents message and command spam during sleep events
- * 
+ *
+ * Each player has one token bucket per action, stored as a theoretical
+ * arrival time in a lock-free long array (GCRA), so checks are safe from
+ * async chat and command threads. A player may use up to burst actions
+ * back to back before the cooldown applies, and idle entries expire on
+ * their own.
+ *
  * @author Turjo
- * @version 1.4.1
+ * @version 1.5.2
  */
 public class AntiSpamManager {
-    
+
+    /**
+     * Rate-limited actions
+     */
+    public enum Action {
+        SLEEP_MESSAGE,
+        WAKE_MESSAGE,
+        COMMAND
+    }
+
+    private static final int ACTION_COUNT = Action.values().length;
+    private static final long SWEEP_INTERVAL_TICKS = 1200L; // One minute
+
     private final EasySleep plugin;
-    private final Map<UUID, Long> lastSleepMessage;
-    private final Map<UUID, Long> lastWakeMessage;
-    private final Map<UUID, Long> lastCommand;
-    
+    private final Map<UUID, AtomicLongArray> buckets;
+    private final BukkitTask sweepTask;
+
     public AntiSpamManager(EasySleep plugin) {
         this.plugin = plugin;
-        this.lastSleepMessage = new HashMap<>();
-        this.lastWakeMessage = new HashMap<>();
-        this.lastCommand = new HashMap<>();
+        this.buckets = new ConcurrentHashMap<>();
+        this.sweepTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                sweepExpired();
+            }
+        }.runTaskTimerAsynchronously(plugin, SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
     }
-    
+
     /**
      * Check if player can send sleep message
      */
     public boolean canSendSleepMessage(Player player) {
-        if (!plugin.getConfigManager().isAntiSpamEnabled()) {
-            return true;
-        }
-        
-        UUID uuid = player.getUniqueId();
-        long currentTime = System.currentTimeMillis();
-        long lastTime = lastSleepMessage.getOrDefault(uuid, 0L);
-        long cooldown = plugin.getConfigManager().getSleepMessageCooldown() * 1000L;
-        
-        if (currentTime - lastTime >= cooldown) {
-            lastSleepMessage.put(uuid, currentTime);
-            return true;
-        }
-        
-        return false;
+        return tryAcquire(player.getUniqueId(), Action.SLEEP_MESSAGE);
     }
-    
+
     /**
      * Check if player can send wake message
      */
     public boolean canSendWakeMessage(Player player) {
-        if (!plugin.getConfigManager().isAntiSpamEnabled()) {
-            return true;
-        }
-        
-        UUID uuid = player.getUniqueId();
-        long currentTime = System.currentTimeMillis();
-        long lastTime = lastWakeMessage.getOrDefault(uuid, 0L);
-        long cooldown = plugin.getConfigManager().getWakeMessageCooldown() * 1000L;
-        
-        if (currentTime - lastTime >= cooldown) {
-            lastWakeMessage.put(uuid, currentTime);
-            return true;
-        }
-        
-        return false;
+        return tryAcquire(player.getUniqueId(), Action.WAKE_MESSAGE);
     }
-    
+
     /**
      * Check if player can use command
      */
     public boolean canUseCommand(Player player) {
-        if (!plugin.getConfigManager().isAntiSpamEnabled()) {
+        return tryAcquire(player.getUniqueId(), Action.COMMAND);
+    }
+
+    /**
+     * Take a token for an action if one is available
+     */
+    public boolean tryAcquire(UUID uuid, Action action) {
+        EasySleepSettings settings = plugin.getConfigManager().getSettings();
+        if (!settings.isAntiSpamEnabled()) {
             return true;
         }
-        
-        UUID uuid = player.getUniqueId();
-        long currentTime = System.currentTimeMillis();
-        long lastTime = lastCommand.getOrDefault(uuid, 0L);
-        long cooldown = plugin.getConfigManager().getCommandCooldown() * 1000L;
-        
-        if (currentTime - lastTime >= cooldown) {
-            lastCommand.put(uuid, currentTime);
+
+        long interval = getInterval(settings, action);
+        if (interval <= 0) {
             return true;
         }
-        
-        return false;
+        long tolerance = interval * (Math.max(1, settings.getAntiSpamBurst()) - 1);
+
+        AtomicLongArray bucket = buckets.computeIfAbsent(uuid, k -> new AtomicLongArray(ACTION_COUNT));
+        int slot = action.ordinal();
+        long now = System.nanoTime();
+
+        while (true) {
+            long arrival = bucket.get(slot);
+            // An unused slot (0) or one that has caught up means a full bucket
+            long base = arrival == 0 || arrival - now < 0 ? now : arrival;
+            if (base - tolerance - now > 0) {
+                return false;
+            }
+            if (bucket.compareAndSet(slot, arrival, base + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get seconds until a player may perform an action again
+     */
+    public long getRemainingCooldown(UUID uuid, Action action) {
+        EasySleepSettings settings = plugin.getConfigManager().getSettings();
+        AtomicLongArray bucket = buckets.get(uuid);
+        if (bucket == null) {
+            return 0;
+        }
+
+        long arrival = bucket.get(action.ordinal());
+        if (arrival == 0) {
+            return 0;
+        }
+        long interval = getInterval(settings, action);
+        long tolerance = interval * (Math.max(1, settings.getAntiSpamBurst()) - 1);
+        long waitNanos = arrival - tolerance - System.nanoTime();
+        return waitNanos > 0 ? (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1) : 0;
     }
-    
+
     /**
      * Get remaining cooldown for sleep message
      */
     public long getSleepMessageCooldown(Player player) {
-        UUID uuid = player.getUniqueId();
-        long currentTime = System.currentTimeMillis();
-        long lastTime = lastSleepMessage.getOrDefault(uuid, 0L);
-        long cooldown = plugin.getConfigManager().getSleepMessageCooldown() * 1000L;
-        
-        return Math.max(0, cooldown - (currentTime - lastTime)) / 1000L;
+        return getRemainingCooldown(player.getUniqueId(), Action.SLEEP_MESSAGE);
     }
-    
+
     /**
      * Get remaining cooldown for command
      */
     public long getCommandCooldown(Player player) {
-        UUID uuid = player.getUniqueId();
-        long currentTime = System.currentTimeMillis();
-        long lastTime = lastCommand.getOrDefault(uuid, 0L);
-        long cooldown = plugin.getConfigManager().getCommandCooldown() * 1000L;
-        
-        return Math.max(0, cooldown - (currentTime - lastTime)) / 1000L;
+        return getRemainingCooldown(player.getUniqueId(), Action.COMMAND);
     }
-    
+
+    /**
+     * Get the time one token takes to refill, in nanoseconds
+     */
+    private static long getInterval(EasySleepSettings settings, Action action) {
+        switch (action) {
+            case SLEEP_MESSAGE:
+                return TimeUnit.SECONDS.toNanos(settings.getSleepMessageCooldown());
+            case WAKE_MESSAGE:
+                return TimeUnit.SECONDS.toNanos(settings.getWakeMessageCooldown());
+            default:
+                return TimeUnit.SECONDS.toNanos(settings.getCommandCooldown());
+        }
+    }
+
+    /**
+     * Drop players whose buckets have all refilled
+     */
+    private void sweepExpired() {
+        long now = System.nanoTime();
+        Iterator<AtomicLongArray> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            AtomicLongArray bucket = iterator.next();
+            boolean idle = true;
+            for (int i = 0; i < ACTION_COUNT; i++) {
+                long arrival = bucket.get(i);
+                if (arrival != 0 && arrival - now > 0) {
+                    idle = false;
+                    break;
+                }
+            }
+            if (idle) {
+                iterator.remove();
+            }
+        }
+    }
+
     /**
      * Remove player from tracking
      */
     public void removePlayer(Player player) {
-        UUID uuid = player.getUniqueId();
-        lastSleepMessage.remove(uuid);
-        lastWakeMessage.remove(uuid);
-        lastCommand.remove(uuid);
+        buckets.remove(player.getUniqueId());
     }
-    
+
     /**
      * Cleanup method
      */
     public void cleanup() {
-        lastSleepMessage.clear();
-        lastWakeMessage.clear();
-        lastCommand.clear();
+        sweepTask.cancel();
+        buckets.clear();
     }
-}
\ No newline at end of file
+}
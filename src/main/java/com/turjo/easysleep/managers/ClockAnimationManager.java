@@ -6,7 +6,6 @@ import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 /**
  * Modern Minimalist Clock Animation System
@@ -18,7 +17,7 @@ import org.bukkit.scheduler.BukkitRunnable;
 public class ClockAnimationManager {
     
     private final EasySleep plugin;
-    private BukkitRunnable clockTask;
+    private ScheduledEffect clockTask;
     
     public ClockAnimationManager(EasySleep plugin) {
         this.plugin = plugin;
@@ -33,7 +32,7 @@ public class ClockAnimationManager {
             return;
         }
         
-        clockTask = new BukkitRunnable() {
+        clockTask = new ScheduledEffect() {
             int ticks = 0;
             
             @Override
@@ -42,12 +41,10 @@ public class ClockAnimationManager {
                     return;
                 }
                 
-                // Only show clock every 60 ticks (3 seconds) to reduce lag
-                if (ticks % 60 == 0) {
-                    for (Player player : plugin.getServer().getOnlinePlayers()) {
-                        if (player.isSleeping()) {
-                            showModernClock(player);
-                        }
+                // Runs every 60 ticks (3 seconds) to reduce lag
+                for (World world : plugin.getServer().getWorlds()) {
+                    for (Player player : plugin.getSleepStateIndex().getSleepers(world)) {
+                        showModernClock(player);
                     }
                 }
                 
@@ -56,10 +53,10 @@ public class ClockAnimationManager {
                     playModernClockChime();
                 }
                 
-                ticks++;
+                ticks += 60;
             }
         };
-        clockTask.runTaskTimer(plugin, 0L, 1L);
+        clockTask.schedule(plugin.getEffectScheduler(), 0L, 60L);
     }
     
     /**
@@ -84,7 +81,7 @@ public class ClockAnimationManager {
         createModernClockHand(loc, world, minutes * 6, 0.9, getModernTimeParticle(time));
         
         // Center point - single particle
-        world.spawnParticle(Particle.SOUL_FIRE_FLAME, loc, 1, 0, 0, 0, 0);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.SOUL_FIRE_FLAME, loc, 1, 0, 0, 0, 0);
     }
     
     /**
@@ -98,7 +95,7 @@ public class ClockAnimationManager {
             double z = Math.sin(angle) * 0.8;
             Location markerLoc = center.clone().add(x, 0, z);
             
-            world.spawnParticle(Particle.END_ROD, markerLoc, 1, 0, 0, 0, 0);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.END_ROD, markerLoc, 1, 0, 0, 0, 0);
         }
     }
     
@@ -113,7 +110,7 @@ public class ClockAnimationManager {
         double z = Math.sin(angle) * length;
         Location handLoc = center.clone().add(x, 0, z);
         
-        world.spawnParticle(particle, handLoc, 1, 0, 0, 0, 0);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, particle, handLoc, 1, 0, 0, 0, 0);
     }
     
     /**
@@ -135,9 +132,9 @@ public class ClockAnimationManager {
             return;
         }
         
-        for (Player player : plugin.getServer().getOnlinePlayers()) {
-            if (player.isSleeping()) {
-                float volume = (float) (0.05f * plugin.getConfigManager().getSoundVolume());
+        float volume = (float) (0.05f * plugin.getConfigManager().getSoundVolume());
+        for (World world : plugin.getServer().getWorlds()) {
+            for (Player player : plugin.getSleepStateIndex().getSleepers(world)) {
                 player.playSound(player.getLocation(), Sound.BLOCK_AMETHYST_BLOCK_CHIME, volume, 2.2f);
             }
         }
@@ -159,7 +156,6 @@ public class ClockAnimationManager {
     public void cleanup() {
         if (clockTask != null) {
             clockTask.cancel();
-            clockTask.cancel();
         }
     }
 }
\ No newline at end of file
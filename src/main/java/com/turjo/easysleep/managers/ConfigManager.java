@@ -1,8 +1,12 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.utils.MessageTemplate;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Manages plugin configuration and settings with hot-reload capability
  * 
@@ -13,9 +17,12 @@ public class ConfigManager {
     
     private final EasySleep plugin;
     private FileConfiguration config;
+    private volatile EasySleepSettings settings;
+    private final Map<String, MessageTemplate> templates;
     
     public ConfigManager(EasySleep plugin) {
         this.plugin = plugin;
+        this.templates = new ConcurrentHashMap<>();
         loadConfig();
     }
     
@@ -34,6 +41,7 @@ public class ConfigManager {
         
         config.options().copyDefaults(true);
         plugin.saveConfig();
+        settings = EasySleepSettings.load(config);
     }
     
     /**
@@ -85,130 +93,137 @@ public class ConfigManager {
         return config;
     }
     
+    /**
+     * Get the current settings snapshot
+     */
+    public EasySleepSettings getSettings() {
+        return settings;
+    }
+    
     /**
      * Check if animations are enabled
      */
     public boolean areAnimationsEnabled() {
-        return config.getBoolean("animations.enabled", true);
+        return settings.areAnimationsEnabled();
     }
     
     /**
      * Check if sound effects are enabled
      */
     public boolean areSoundEffectsEnabled() {
-        return config.getBoolean("sounds.enabled", true);
+        return settings.areSoundsEnabled();
     }
     
     /**
      * Check if enhanced particles are enabled
      */
     public boolean areEnhancedParticlesEnabled() {
-        return config.getBoolean("animations.enhanced-particles", true);
+        return settings.areEnhancedParticlesEnabled();
     }
     
     /**
      * Get animation intensity level
      */
     public int getAnimationIntensity() {
-        return config.getInt("animations.intensity", 2);
+        return settings.getAnimationIntensity();
     }
     
     /**
      * Get sound volume multiplier
      */
     public double getSoundVolume() {
-        return config.getDouble("sounds.master-volume", 0.3);
+        return settings.getSoundVolume();
     }
     
     /**
      * Get maximum animation distance
      */
     public int getMaxAnimationDistance() {
-        return config.getInt("animations.max-distance", 32);
+        return settings.getMaxAnimationDistance();
     }
     
     /**
      * Check if debug mode is enabled
      */
     public boolean isDebugMode() {
-        return config.getBoolean("technical.debug-mode", false);
+        return settings.isDebugMode();
     }
     
     /**
      * Check if day counter is enabled
      */
     public boolean isDayCounterEnabled() {
-        return config.getBoolean("features.day-counter.enabled", true);
+        return settings.isDayCounterEnabled();
     }
     
     /**
      * Check if clock animation is enabled
      */
     public boolean isClockAnimationEnabled() {
-        return config.getBoolean("animations.clock-animation", true);
+        return settings.isClockAnimationEnabled();
     }
     
     /**
      * Check if day-night animation is enabled
      */
     public boolean isDayNightAnimationEnabled() {
-        return config.getBoolean("animations.day-night-cycle", true);
+        return settings.isDayNightAnimationEnabled();
     }
     
     /**
      * Check if anti-spam is enabled
      */
     public boolean isAntiSpamEnabled() {
-        return config.getBoolean("features.anti-spam.enabled", true);
+        return settings.isAntiSpamEnabled();
     }
     
     /**
      * Check if AFK detection is enabled
      */
     public boolean isAFKDetectionEnabled() {
-        return config.getBoolean("features.afk-detection.enabled", true);
+        return settings.isAFKDetectionEnabled();
     }
     
     /**
      * Get AFK threshold in minutes
      */
     public int getAFKThreshold() {
-        return config.getInt("features.afk-detection.threshold-minutes", 5);
+        return settings.getAFKThreshold();
     }
     
     /**
      * Get sleep message cooldown in seconds
      */
     public int getSleepMessageCooldown() {
-        return config.getInt("features.anti-spam.sleep-message-cooldown", 5);
+        return settings.getSleepMessageCooldown();
     }
     
     /**
      * Get wake message cooldown in seconds
      */
     public int getWakeMessageCooldown() {
-        return config.getInt("features.anti-spam.wake-message-cooldown", 3);
+        return settings.getWakeMessageCooldown();
     }
     
     /**
      * Get command cooldown in seconds
      */
     public int getCommandCooldown() {
-        return config.getInt("features.anti-spam.command-cooldown", 2);
+        return settings.getCommandCooldown();
     }
     
     /**
      * Get sleep particle type
      */
     public String getSleepParticle() {
-        return config.getString("animations.sleep-particle", "SOUL_FIRE_FLAME");
+        return settings.getSleepParticle();
     }
     
     /**
      * Get sleep sound type
      */
     public String getSleepSound() {
-        return config.getString("sounds.sleep-sound.sound", "BLOCK_AMETHYST_BLOCK_CHIME");
+        return settings.getSleepSound();
     }
     
     /**
@@ -221,22 +236,27 @@ public class ConfigManager {
     /**
      * Check if specific message category is enabled
      */
-    public boolean isMessageCategoryEnabled(String category) {
-        return config.getBoolean("messages.enabled." + category, true);
+    public boolean isMessageCategoryEnabled(MessageCategory category) {
+        return settings.isMessageCategoryEnabled(category);
     }
     
     /**
-     * Get customizable message with placeholder replacement
+     * Get customizable message with placeholder replacement (already colorized)
      */
     public String getMessage(String path, String... placeholders) {
-        String message = config.getString("messages." + path, "");
-        
-        // Replace placeholders in pairs (key, value)
-        for (int i = 0; i < placeholders.length - 1; i += 2) {
-            message = message.replace(placeholders[i], placeholders[i + 1]);
+        return getMessageTemplate(path).render(placeholders);
+    }
+    
+    /**
+     * Get the compiled template for a message, parsing it on first use
+     */
+    public MessageTemplate getMessageTemplate(String path) {
+        MessageTemplate template = templates.get(path);
+        if (template == null) {
+            template = MessageTemplate.compile(config.getString("messages." + path, ""));
+            templates.put(path, template);
         }
-        
-        return message;
+        return template;
     }
     
     /**
@@ -259,7 +279,7 @@ public class ConfigManager {
      * Check if performance mode is enabled
      */
     public boolean isPerformanceMode() {
-        return config.getBoolean("animations.performance-mode", false);
+        return settings.isPerformanceMode();
     }
     
     /**
@@ -268,6 +288,18 @@ public class ConfigManager {
     public void reloadConfig() {
         plugin.reloadConfig();
         config = plugin.getConfig();
+        settings = EasySleepSettings.load(config);
+        templates.clear();
+        
+        if (plugin.getParticleManager() != null) {
+            plugin.getParticleManager().reload();
+        }
+        if (plugin.getPerformanceMonitor() != null) {
+            plugin.getPerformanceMonitor().reload();
+        }
+        if (plugin.getRewardsManager() != null) {
+            plugin.getRewardsManager().reload();
+        }
         
         // Restart clock animation if needed
         if (plugin.getClockAnimationManager() != null) {
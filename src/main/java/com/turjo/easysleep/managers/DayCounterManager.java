@@ -1,137 +1,199 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.storage.WorldDayRecord;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
-import java.io.File;
-import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Manages day counting and displays for each world
  * 
+ * Days are derived from World.getFullTime(): each world remembers the
+ * full time it last saw, and the counter moves on by the number of
+ * 24000-tick days crossed since then. Updates happen on TimeSkipEvent,
+ * on world load, when time acceleration moves the clock, and on day
+ * changes reported by the WorldClockService, so multi-day jumps are
+ * counted correctly. Live state is kept by WorldRegistry slot and saved
+ * under the world's UID, so renamed worlds keep their count.
+ * 
  * @author Turjo
- * @version 1.3.1
+ * @version 1.5.2
  */
-public class DayCounterManager {
+public class DayCounterManager implements WorldClockListener, WorldSlotListener {
+    
+    private static final long TICKS_PER_DAY = 24000L;
     
     private final EasySleep plugin;
-    private final Map<String, Long> worldDays;
-    private final Map<String, Long> lastTimeCheck;
-    private File dataFile;
-    private FileConfiguration dataConfig;
+    private WorldDay[] worldDays;
+    // Last known record of every world by UID, including ones not loaded right now
+    private final Map<String, WorldDayRecord> stored;
+    
+    /**
+     * Day counter state for one world
+     */
+    private static class WorldDay {
+        final String key;
+        long day;
+        long fullTime;
+        
+        WorldDay(String key) {
+            this.key = key;
+        }
+    }
     
     public DayCounterManager(EasySleep plugin) {
         this.plugin = plugin;
-        this.worldDays = new HashMap<>();
-        this.lastTimeCheck = new HashMap<>();
+        this.worldDays = new WorldDay[0];
+        this.stored = new HashMap<>();
         
-        setupDataFile();
         loadDayData();
-        startDayTracker();
+        plugin.getWorldClockService().subscribe(this);
+        plugin.getWorldRegistry().subscribe(this);
     }
     
     /**
-     * Setup the data file for storing day counts
+     * Load day data from the storage backend
      */
-    private void setupDataFile() {
-        dataFile = new File(plugin.getDataFolder(), "daydata.yml");
-        if (!dataFile.exists()) {
-            try {
-                dataFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().warning("Could not create day data file: " + e.getMessage());
-            }
+    private void loadDayData() {
+        stored.putAll(plugin.getStorageManager().loadNow("load day data",
+            store -> store.loadWorldDays(), Collections.<String, WorldDayRecord>emptyMap()));
+
+        for (World world : Bukkit.getWorlds()) {
+            trackWorld(world, plugin.getWorldRegistry().getSlot(world));
         }
-        dataConfig = YamlConfiguration.loadConfiguration(dataFile);
     }
     
     /**
-     * Load day data from file
+     * Queue day data for saving
      */
-    private void loadDayData() {
-        for (World world : Bukkit.getWorlds()) {
-            String worldName = world.getName();
-            long days = dataConfig.getLong("worlds." + worldName + ".days", 1);
-            long lastTime = dataConfig.getLong("worlds." + worldName + ".lastTime", world.getTime());
-            
-            worldDays.put(worldName, days);
-            lastTimeCheck.put(worldName, lastTime);
+    private void saveDayData() {
+        for (WorldDay state : worldDays) {
+            if (state != null) {
+                stored.put(state.key, new WorldDayRecord(state.day, state.fullTime));
+            }
         }
+        Map<String, WorldDayRecord> snapshot = new HashMap<>(stored);
+        
+        plugin.getStorageManager().execute("save day data", store -> store.saveWorldDays(snapshot));
     }
     
     /**
-     * Save day data to file
+     * Get a world's state, or null if it is not tracked
      */
-    private void saveDayData() {
-        for (Map.Entry<String, Long> entry : worldDays.entrySet()) {
-            String worldName = entry.getKey();
-            long days = entry.getValue();
-            long lastTime = lastTimeCheck.getOrDefault(worldName, 0L);
-            
-            dataConfig.set("worlds." + worldName + ".days", days);
-            dataConfig.set("worlds." + worldName + ".lastTime", lastTime);
+    private WorldDay getState(World world) {
+        int slot = plugin.getWorldRegistry().getSlot(world);
+        return slot < worldDays.length ? worldDays[slot] : null;
+    }
+    
+    /**
+     * Start counting days in a world (startup and world load)
+     */
+    private void trackWorld(World world, int slot) {
+        worldDays = WorldRegistry.fit(worldDays, slot);
+        if (worldDays[slot] != null) {
+            return;
         }
         
-        try {
-            dataConfig.save(dataFile);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Could not save day data: " + e.getMessage());
+        // Records saved before UID keys are stored by world name
+        String key = world.getUID().toString();
+        WorldDayRecord record = stored.get(key);
+        if (record == null) {
+            record = stored.remove(world.getName());
         }
+        
+        // The stored day is where we left off; the world clock picks up from its current time
+        WorldDay state = new WorldDay(key);
+        state.day = record != null ? record.getDays() : 1L;
+        state.fullTime = world.getFullTime();
+        worldDays[slot] = state;
+    }
+    
+    @Override
+    public void onWorldAdded(World world, int slot) {
+        trackWorld(world, slot);
     }
     
     /**
-     * Start the day tracking system
+     * Stop counting days in a world (world unload)
      */
-    private void startDayTracker() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!plugin.getConfigManager().isDayCounterEnabled()) {
-                    return;
-                }
-                
-                for (World world : Bukkit.getWorlds()) {
-                    checkDayChange(world);
-                }
-            }
-        }.runTaskTimer(plugin, 20L, 20L); // Check every second
+    @Override
+    public void onWorldRemoved(World world, int slot) {
+        if (slot >= worldDays.length || worldDays[slot] == null) {
+            return;
+        }
+        
+        updateWorld(world);
+        saveDayData();
+        worldDays[slot] = null;
+    }
+    
+    /**
+     * Handle a time skip (night skip, /time command, other plugins)
+     */
+    public void onTimeSkip(World world, long skipAmount) {
+        refresh(world, world.getFullTime() + skipAmount);
+    }
+    
+    /**
+     * Natural rollover, or a jump the clock service noticed
+     */
+    @Override
+    public void onDayChange(World world, long previousDay, long day) {
+        long start = plugin.getPerformanceMonitor().start();
+        updateWorld(world);
+        plugin.getPerformanceMonitor().stop("DayCounter", start);
+    }
+    
+    /**
+     * Re-read the world clock, e.g. after time was set directly
+     */
+    public void updateWorld(World world) {
+        refresh(world, world.getFullTime());
     }
     
     /**
-     * Check if a new day has started in the world
+     * Move a world's counter to a new full time
      */
-    private void checkDayChange(World world) {
-        String worldName = world.getName();
-        long currentTime = world.getTime();
-        long lastTime = lastTimeCheck.getOrDefault(worldName, currentTime);
+    private void refresh(World world, long fullTime) {
+        WorldDay state = getState(world);
+        if (state == null) {
+            return;
+        }
         
-        // Check if time has wrapped around (new day)
-        if (lastTime > 12000 && currentTime < 6000) {
-            // New day detected
-            long currentDay = worldDays.getOrDefault(worldName, 1L);
-            long newDay = currentDay + 1;
-            
-            worldDays.put(worldName, newDay);
-            lastTimeCheck.put(worldName, currentTime);
+        long previous = state.fullTime;
+        state.fullTime = fullTime;
+        if (!plugin.getConfigManager().isDayCounterEnabled()) {
+            return;
+        }
+        
+        long daysPassed;
+        if (fullTime >= previous) {
+            daysPassed = Math.floorDiv(fullTime, TICKS_PER_DAY) - Math.floorDiv(previous, TICKS_PER_DAY);
+        } else {
+            // Clock was set back (e.g. /time set day); never count backwards,
+            // but going from afternoon to morning is still a new day
+            long before = Math.floorMod(previous, TICKS_PER_DAY);
+            long after = Math.floorMod(fullTime, TICKS_PER_DAY);
+            daysPassed = before > 12000 && after < 6000 ? 1 : 0;
+        }
+        
+        if (daysPassed > 0) {
+            state.day += daysPassed;
             
             // Show day title to all players in the world
-            showDayTitle(world, newDay);
+            showDayTitle(world, state.day);
             
             // Save data
             saveDayData();
             
             if (plugin.getConfigManager().isDebugMode()) {
-                plugin.getLogger().info("New day detected in " + worldName + ": Day " + newDay);
+                plugin.getLogger().info("New day detected in " + world.getName() + ": Day " + state.day);
             }
-        } else {
-            lastTimeCheck.put(worldName, currentTime);
         }
     }
     
@@ -165,14 +227,20 @@ public class DayCounterManager {
      * Get the current day for a world
      */
     public long getCurrentDay(World world) {
-        return worldDays.getOrDefault(world.getName(), 1L);
+        WorldDay state = getState(world);
+        return state != null ? state.day : 1L;
     }
     
     /**
      * Set the day for a world (admin command)
      */
     public void setDay(World world, long day) {
-        worldDays.put(world.getName(), day);
+        WorldDay state = getState(world);
+        if (state == null) {
+            return;
+        }
+        state.day = day;
+        state.fullTime = world.getFullTime();
         saveDayData();
     }
     
@@ -180,15 +248,15 @@ public class DayCounterManager {
      * Reset day counter for a world
      */
     public void resetDay(World world) {
-        worldDays.put(world.getName(), 1L);
-        lastTimeCheck.put(world.getName(), world.getTime());
-        saveDayData();
+        setDay(world, 1L);
     }
     
     /**
      * Cleanup method for plugin disable
      */
     public void cleanup() {
+        plugin.getWorldClockService().unsubscribe(this);
+        plugin.getWorldRegistry().unsubscribe(this);
         saveDayData();
     }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
-import com.turjo.easysleep.utils.MessageUtils;
+import com.turjo.easysleep.utils.BroadcastBatch;
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
@@ -9,73 +9,55 @@ import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Modern Day-Night Cycle Manager
  * Ultra-lightweight time acceleration effects
  * 
+ * Time jumps are reported by the WorldClockService.
+ * 
  * @author Turjo
  * @version 1.5.1
  */
-public class DayNightCycleManager {
+public class DayNightCycleManager implements WorldClockListener {
     
     private final EasySleep plugin;
-    private final Map<String, Long> lastTimeCheck;
-    private final Map<String, Boolean> animationActive;
+    private boolean[] animationActive; // Indexed by WorldRegistry slot
     
     public DayNightCycleManager(EasySleep plugin) {
         this.plugin = plugin;
-        this.lastTimeCheck = new HashMap<>();
-        this.animationActive = new HashMap<>();
-        startModernCycleMonitoring();
-    }
-    
-    /**
-     * Start modern cycle monitoring
-     */
-    private void startModernCycleMonitoring() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!plugin.getConfigManager().isDayNightAnimationEnabled()) {
-                    return;
-                }
-                
-                for (World world : plugin.getServer().getWorlds()) {
-                    checkModernTimeAcceleration(world);
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 20L); // Check every second instead of every 0.5 seconds
+        this.animationActive = new boolean[0];
+        plugin.getWorldClockService().subscribe(this);
     }
     
     /**
-     * Check for time acceleration
+     * React to a time jump
      */
-    private void checkModernTimeAcceleration(World world) {
-        String worldName = world.getName();
-        long currentTime = world.getTime();
-        long lastTime = lastTimeCheck.getOrDefault(worldName, currentTime);
+    @Override
+    public void onTimeJump(World world, long previousFullTime, long fullTime) {
+        if (!plugin.getConfigManager().isDayNightAnimationEnabled()) {
+            return;
+        }
         
-        // Detect time jump
-        long timeDiff = Math.abs(currentTime - lastTime);
+        long start = plugin.getPerformanceMonitor().start();
+        int slot = plugin.getWorldRegistry().getSlot(world);
+        animationActive = WorldRegistry.fit(animationActive, slot);
         
-        // Only trigger if significant time jump and players are online
-        if (timeDiff > 200 && !animationActive.getOrDefault(worldName, false) && !world.getPlayers().isEmpty()) {
+        // Only trigger if players are online and no animation is running
+        if (!animationActive[slot] && !world.getPlayers().isEmpty()) {
             triggerModernTimeAcceleration(world);
-            animationActive.put(worldName, true);
+            animationActive[slot] = true;
             
             // Reset flag after 5 seconds
             new BukkitRunnable() {
                 @Override
                 public void run() {
-                    animationActive.put(worldName, false);
+                    if (slot < animationActive.length) {
+                        animationActive[slot] = false;
+                    }
                 }
             }.runTaskLater(plugin, 100L);
         }
-        
-        lastTimeCheck.put(worldName, currentTime);
+        plugin.getPerformanceMonitor().stop("DayNightCycle", start);
     }
     
     /**
@@ -87,13 +69,15 @@ public class DayNightCycleManager {
         }
         
         // Check if time acceleration messages are enabled
-        if (plugin.getConfigManager().isMessageCategoryEnabled("time-acceleration")) {
-            MessageUtils.broadcastToWorld(world, "");
-            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("time-acceleration.active"));
-            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("time-acceleration.reality-shifting"));
-            MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-            MessageUtils.broadcastToWorld(world, "");
+        if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.TIME_ACCELERATION)) {
+            BroadcastBatch.toWorld(world)
+                .line("")
+                .line(plugin.getConfigManager().getBorderLine())
+                .line(plugin.getConfigManager().getMessage("time-acceleration.active"))
+                .line(plugin.getConfigManager().getMessage("time-acceleration.reality-shifting"))
+                .line(plugin.getConfigManager().getBorderLine())
+                .line("")
+                .send();
         }
         
         startModernAccelerationSequence(world);
@@ -103,7 +87,7 @@ public class DayNightCycleManager {
      * Modern acceleration sequence - ultra minimal
      */
     private void startModernAccelerationSequence(World world) {
-        new BukkitRunnable() {
+        new ScheduledEffect() {
             int ticks = 0;
             
             @Override
@@ -123,20 +107,22 @@ public class DayNightCycleManager {
                     createModernStabilization(player, skyLoc, ticks - 40);
                 } else {
                     // Completion
-                    if (plugin.getConfigManager().isMessageCategoryEnabled("time-acceleration")) {
-                        MessageUtils.broadcastToWorld(world, "");
-                        MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-                        MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("time-acceleration.complete"));
-                        MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("time-acceleration.timeline-established"));
-                        MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-                        MessageUtils.broadcastToWorld(world, "");
+                    if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.TIME_ACCELERATION)) {
+                        BroadcastBatch.toWorld(world)
+                            .line("")
+                            .line(plugin.getConfigManager().getBorderLine())
+                            .line(plugin.getConfigManager().getMessage("time-acceleration.complete"))
+                            .line(plugin.getConfigManager().getMessage("time-acceleration.timeline-established"))
+                            .line(plugin.getConfigManager().getBorderLine())
+                            .line("")
+                            .send();
                     }
                     cancel();
                 }
                 
                 ticks++;
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 0L, 1L);
     }
     
     /**
@@ -151,7 +137,7 @@ public class DayNightCycleManager {
         double y = Math.sin(ticks * 0.05) * 0.3;
         
         Location accelLoc = center.clone().add(x, y, z);
-        player.getWorld().spawnParticle(Particle.SOUL_FIRE_FLAME, accelLoc, 1, 0, 0, 0, 0);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.SOUL_FIRE_FLAME, accelLoc, 1, 0, 0, 0, 0);
         
         // Sound only at start
         if (ticks == 0) {
@@ -173,7 +159,7 @@ public class DayNightCycleManager {
             double z = Math.sin(angle) * radius;
             Location stabilizeLoc = center.clone().add(x, 0, z);
             
-            player.getWorld().spawnParticle(Particle.TOTEM, stabilizeLoc, 1, 0.05, 0.05, 0.05, 0.01);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.TOTEM, stabilizeLoc, 1, 0.05, 0.05, 0.05, 0.01);
         }
         
         // Completion sound
@@ -196,7 +182,7 @@ public class DayNightCycleManager {
      * Cleanup method
      */
     public void cleanup() {
-        lastTimeCheck.clear();
-        animationActive.clear();
+        plugin.getWorldClockService().unsubscribe(this);
+        animationActive = new boolean[0];
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.utils.BroadcastBatch;
 import com.turjo.easysleep.utils.MessageUtils;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
@@ -42,8 +43,10 @@ public class DimensionalSleepManager {
         new BukkitRunnable() {
             @Override
             public void run() {
+                long start = plugin.getPerformanceMonitor().start();
                 checkDimensionalSleep();
                 maintainPortals();
+                plugin.getPerformanceMonitor().stop("DimensionalSleep", start);
             }
         }.runTaskTimer(plugin, 0L, 60L); // Check every 3 seconds
     }
@@ -56,15 +59,8 @@ public class DimensionalSleepManager {
         
         // Collect sleeping players by dimension type
         for (World world : plugin.getServer().getWorlds()) {
-            List<Player> sleepers = new ArrayList<>();
-            for (Player player : world.getPlayers()) {
-                if (player.isSleeping() && !plugin.getAFKManager().isPlayerAFK(player)) {
-                    sleepers.add(player);
-                }
-            }
-            
-            if (!sleepers.isEmpty()) {
-                dimensionSleepers.put(world.getEnvironment(), sleepers);
+            if (plugin.getSleepStateIndex().getSleepingCount(world) > 0) {
+                dimensionSleepers.put(world.getEnvironment(), new ArrayList<>(plugin.getSleepStateIndex().getSleepers(world)));
             }
         }
         
@@ -129,30 +125,34 @@ public class DimensionalSleepManager {
         // Announce to first dimension
         if (!sleepers1.isEmpty()) {
             World world1 = sleepers1.get(0).getWorld();
-            if (plugin.getConfigManager().isMessageCategoryEnabled("dimensional-messages")) {
-                MessageUtils.broadcastToWorld(world1, "");
-                MessageUtils.broadcastToWorld(world1, plugin.getConfigManager().getBorderLine());
-                MessageUtils.broadcastToWorld(world1, plugin.getConfigManager().getMessage("dimensional.portal-opened"));
-                MessageUtils.broadcastToWorld(world1, plugin.getConfigManager().getMessage("dimensional.portal-type", "%portal_type%", portalName));
-                MessageUtils.broadcastToWorld(world1, plugin.getConfigManager().getMessage("dimensional.connected-dreamers", "%count%", String.valueOf(sleepers1.size() + sleepers2.size())));
-                MessageUtils.broadcastToWorld(world1, plugin.getConfigManager().getMessage("dimensional.bridge-stabilizing"));
-                MessageUtils.broadcastToWorld(world1, plugin.getConfigManager().getBorderLine());
-                MessageUtils.broadcastToWorld(world1, "");
+            if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.DIMENSIONAL_MESSAGES)) {
+                BroadcastBatch.toWorld(world1)
+                    .line("")
+                    .line(plugin.getConfigManager().getBorderLine())
+                    .line(plugin.getConfigManager().getMessage("dimensional.portal-opened"))
+                    .line(plugin.getConfigManager().getMessage("dimensional.portal-type", "%portal_type%", portalName))
+                    .line(plugin.getConfigManager().getMessage("dimensional.connected-dreamers", "%count%", String.valueOf(sleepers1.size() + sleepers2.size())))
+                    .line(plugin.getConfigManager().getMessage("dimensional.bridge-stabilizing"))
+                    .line(plugin.getConfigManager().getBorderLine())
+                    .line("")
+                    .send();
             }
         }
         
         // Announce to second dimension
         if (!sleepers2.isEmpty()) {
             World world2 = sleepers2.get(0).getWorld();
-            if (plugin.getConfigManager().isMessageCategoryEnabled("dimensional-messages")) {
-                MessageUtils.broadcastToWorld(world2, "");
-                MessageUtils.broadcastToWorld(world2, plugin.getConfigManager().getBorderLine());
-                MessageUtils.broadcastToWorld(world2, plugin.getConfigManager().getMessage("dimensional.portal-opened"));
-                MessageUtils.broadcastToWorld(world2, plugin.getConfigManager().getMessage("dimensional.portal-type", "%portal_type%", portalName));
-                MessageUtils.broadcastToWorld(world2, plugin.getConfigManager().getMessage("dimensional.connected-dreamers", "%count%", String.valueOf(sleepers1.size() + sleepers2.size())));
-                MessageUtils.broadcastToWorld(world2, plugin.getConfigManager().getMessage("dimensional.bridge-stabilizing"));
-                MessageUtils.broadcastToWorld(world2, plugin.getConfigManager().getBorderLine());
-                MessageUtils.broadcastToWorld(world2, "");
+            if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.DIMENSIONAL_MESSAGES)) {
+                BroadcastBatch.toWorld(world2)
+                    .line("")
+                    .line(plugin.getConfigManager().getBorderLine())
+                    .line(plugin.getConfigManager().getMessage("dimensional.portal-opened"))
+                    .line(plugin.getConfigManager().getMessage("dimensional.portal-type", "%portal_type%", portalName))
+                    .line(plugin.getConfigManager().getMessage("dimensional.connected-dreamers", "%count%", String.valueOf(sleepers1.size() + sleepers2.size())))
+                    .line(plugin.getConfigManager().getMessage("dimensional.bridge-stabilizing"))
+                    .line(plugin.getConfigManager().getBorderLine())
+                    .line("")
+                    .send();
             }
         }
     }
@@ -161,7 +161,7 @@ public class DimensionalSleepManager {
      * 🌟 Start portal effects between dimensions
      */
     private void startPortalEffects(String portalId, List<Player> sleepers1, List<Player> sleepers2) {
-        new BukkitRunnable() {
+        new ScheduledEffect() {
             int ticks = 0;
             
             @Override
@@ -182,7 +182,7 @@ public class DimensionalSleepManager {
                 
                 ticks++;
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 0L, 1L);
     }
     
     /**
@@ -205,12 +205,12 @@ public class DimensionalSleepManager {
             
             // Portal particles
             Particle portalParticle = (i % 2 == 0) ? Particle.PORTAL : Particle.END_ROD;
-            center.getWorld().spawnParticle(portalParticle, portalLoc, 1, 0.1, 0.1, 0.1, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, portalParticle, portalLoc, 1, 0.1, 0.1, 0.1, 0.02);
         }
         
         // Central portal energy
         if (ticks % 30 == 0) {
-            center.getWorld().spawnParticle(Particle.DRAGON_BREATH, center, 3, 1.0, 1.0, 1.0, 0.05);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.DRAGON_BREATH, center, 3, 1.0, 1.0, 1.0, 0.05);
         }
     }
     
@@ -224,15 +224,15 @@ public class DimensionalSleepManager {
         Location center2 = calculateWorldCenter(sleepers2);
         
         // Resonance effects
-        center1.getWorld().spawnParticle(Particle.TOTEM, center1, 8, 2.0, 2.0, 2.0, 0.15);
-        center2.getWorld().spawnParticle(Particle.TOTEM, center2, 8, 2.0, 2.0, 2.0, 0.15);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.HIGH, Particle.TOTEM, center1, 8, 2.0, 2.0, 2.0, 0.15);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.HIGH, Particle.TOTEM, center2, 8, 2.0, 2.0, 2.0, 0.15);
         
         // Resonance sounds
         center1.getWorld().playSound(center1, Sound.BLOCK_BEACON_POWER_SELECT, 0.3f, 1.8f);
         center2.getWorld().playSound(center2, Sound.BLOCK_BEACON_POWER_SELECT, 0.3f, 1.8f);
         
         // Broadcast resonance message
-        if (plugin.getConfigManager().isMessageCategoryEnabled("dimensional-messages")) {
+        if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.DIMENSIONAL_MESSAGES)) {
             MessageUtils.broadcastToWorld(center1.getWorld(), plugin.getConfigManager().getMessage("dimensional.resonance-detected"));
             MessageUtils.broadcastToWorld(center2.getWorld(), plugin.getConfigManager().getMessage("dimensional.resonance-detected"));
         }
@@ -6,8 +6,6 @@ import org.bukkit.*;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 
@@ -22,11 +20,11 @@ public class DreamSequenceManager {
     
     private final EasySleep plugin;
     private final Map<UUID, DreamState> activeDreams;
-    private final Map<UUID, BukkitTask> dreamTasks;
+    private final Map<UUID, ScheduledEffect> dreamTasks;
     private final Random random;
     
     // Dream types with unique effects
-    private enum DreamType {
+    public enum DreamType {
         PEACEFUL_MEADOW, COSMIC_VOYAGE, UNDERWATER_PALACE, 
         FLOATING_ISLANDS, CRYSTAL_CAVERNS, AURORA_REALM
     }
@@ -62,7 +60,7 @@ public class DreamSequenceManager {
         MessageUtils.sendMessage(player, "");
         
         // Start dream sequence
-        BukkitTask task = new BukkitRunnable() {
+        ScheduledEffect task = new ScheduledEffect() {
             int phase = 0;
             int ticks = 0;
             
@@ -94,7 +92,7 @@ public class DreamSequenceManager {
                 
                 ticks++;
             }
-        }.runTaskTimer(plugin, 20L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 20L, 1L);
         
         dreamTasks.put(uuid, task);
     }
@@ -114,28 +112,28 @@ public class DreamSequenceManager {
             double y = Math.sin(ticks * 0.1) * 0.5;
             
             Location portalLoc = loc.clone().add(x, y, z);
-            player.getWorld().spawnParticle(Particle.PORTAL, portalLoc, 2, 0.1, 0.1, 0.1, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.PORTAL, portalLoc, 2, 0.1, 0.1, 0.1, 0.02);
         }
         
         // Dream-specific entry particles
         switch (dreamType) {
             case PEACEFUL_MEADOW:
-                player.getWorld().spawnParticle(Particle.VILLAGER_HAPPY, loc, 1, 0.5, 0.5, 0.5, 0.01);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.VILLAGER_HAPPY, loc, 1, 0.5, 0.5, 0.5, 0.01);
                 break;
             case COSMIC_VOYAGE:
-                player.getWorld().spawnParticle(Particle.END_ROD, loc, 2, 0.3, 0.3, 0.3, 0.05);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.END_ROD, loc, 2, 0.3, 0.3, 0.3, 0.05);
                 break;
             case UNDERWATER_PALACE:
-                player.getWorld().spawnParticle(Particle.DRIP_WATER, loc, 3, 0.4, 0.4, 0.4, 0.01);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.DRIP_WATER, loc, 3, 0.4, 0.4, 0.4, 0.01);
                 break;
             case FLOATING_ISLANDS:
-                player.getWorld().spawnParticle(Particle.CLOUD, loc, 2, 0.6, 0.2, 0.6, 0.02);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.CLOUD, loc, 2, 0.6, 0.2, 0.6, 0.02);
                 break;
             case CRYSTAL_CAVERNS:
-                player.getWorld().spawnParticle(Particle.ENCHANTMENT_TABLE, loc, 3, 0.5, 0.5, 0.5, 0.03);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.ENCHANTMENT_TABLE, loc, 3, 0.5, 0.5, 0.5, 0.03);
                 break;
             case AURORA_REALM:
-                player.getWorld().spawnParticle(Particle.TOTEM, loc, 1, 0.8, 0.8, 0.8, 0.02);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.TOTEM, loc, 1, 0.8, 0.8, 0.8, 0.02);
                 break;
         }
         
@@ -191,12 +189,12 @@ public class DreamSequenceManager {
             double y = Math.sin(ticks * 0.08 + i) * 0.4;
             
             Location flowerLoc = center.clone().add(x, y, z);
-            player.getWorld().spawnParticle(Particle.VILLAGER_HAPPY, flowerLoc, 1, 0.1, 0.1, 0.1, 0.01);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.VILLAGER_HAPPY, flowerLoc, 1, 0.1, 0.1, 0.1, 0.01);
         }
         
         // Gentle breeze effect
         if (ticks % 30 == 0) {
-            player.getWorld().spawnParticle(Particle.CLOUD, center, 3, 1.5, 0.5, 1.5, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.CLOUD, center, 3, 1.5, 0.5, 1.5, 0.02);
             player.playSound(player.getLocation(), Sound.BLOCK_GRASS_STEP, 0.1f, 2.0f);
         }
     }
@@ -214,12 +212,12 @@ public class DreamSequenceManager {
             double y = Math.cos(ticks * 0.04 + i) * 0.8;
             
             Location starLoc = center.clone().add(x, y, z);
-            player.getWorld().spawnParticle(Particle.END_ROD, starLoc, 1, 0, 0, 0, 0);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.END_ROD, starLoc, 1, 0, 0, 0, 0);
         }
         
         // Cosmic wind
         if (ticks % 25 == 0) {
-            player.getWorld().spawnParticle(Particle.DRAGON_BREATH, center, 2, 1.0, 1.0, 1.0, 0.05);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.DRAGON_BREATH, center, 2, 1.0, 1.0, 1.0, 0.05);
             player.playSound(player.getLocation(), Sound.ENTITY_ENDER_DRAGON_AMBIENT, 0.08f, 2.5f);
         }
     }
@@ -236,12 +234,12 @@ public class DreamSequenceManager {
             double y = (ticks % 40) * 0.1;
             
             Location bubbleLoc = center.clone().add(x, y, z);
-            player.getWorld().spawnParticle(Particle.BUBBLE_POP, bubbleLoc, 1, 0.1, 0.1, 0.1, 0.01);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.BUBBLE_POP, bubbleLoc, 1, 0.1, 0.1, 0.1, 0.01);
         }
         
         // Water currents
         if (ticks % 20 == 0) {
-            player.getWorld().spawnParticle(Particle.DRIP_WATER, center, 5, 1.2, 0.8, 1.2, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.DRIP_WATER, center, 5, 1.2, 0.8, 1.2, 0.02);
             player.playSound(player.getLocation(), Sound.AMBIENT_UNDERWATER_LOOP, 0.12f, 1.5f);
         }
     }
@@ -259,12 +257,12 @@ public class DreamSequenceManager {
             double y = Math.sin(ticks * 0.06 + i) * 0.6 + 1.0;
             
             Location cloudLoc = center.clone().add(x, y, z);
-            player.getWorld().spawnParticle(Particle.CLOUD, cloudLoc, 2, 0.3, 0.1, 0.3, 0.01);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.CLOUD, cloudLoc, 2, 0.3, 0.1, 0.3, 0.01);
         }
         
         // Wind effects
         if (ticks % 35 == 0) {
-            player.getWorld().spawnParticle(Particle.SWEEP_ATTACK, center, 1, 1.5, 1.5, 1.5, 0.1);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.SWEEP_ATTACK, center, 1, 1.5, 1.5, 1.5, 0.1);
             player.playSound(player.getLocation(), Sound.ITEM_ELYTRA_FLYING, 0.1f, 1.8f);
         }
     }
@@ -282,12 +280,12 @@ public class DreamSequenceManager {
             double y = Math.cos(ticks * 0.05 + i) * 0.3;
             
             Location crystalLoc = center.clone().add(x, y, z);
-            player.getWorld().spawnParticle(Particle.ENCHANTMENT_TABLE, crystalLoc, 1, 0.05, 0.05, 0.05, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.ENCHANTMENT_TABLE, crystalLoc, 1, 0.05, 0.05, 0.05, 0.02);
         }
         
         // Crystal resonance
         if (ticks % 40 == 0) {
-            player.getWorld().spawnParticle(Particle.CRIT_MAGIC, center, 4, 1.0, 1.0, 1.0, 0.1);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.CRIT_MAGIC, center, 4, 1.0, 1.0, 1.0, 0.1);
             player.playSound(player.getLocation(), Sound.BLOCK_AMETHYST_BLOCK_RESONATE, 0.15f, 2.2f);
         }
     }
@@ -309,7 +307,7 @@ public class DreamSequenceManager {
             // Cycle through aurora colors
             Particle auroraParticle = (i % 3 == 0) ? Particle.TOTEM : 
                                     (i % 3 == 1) ? Particle.SOUL_FIRE_FLAME : Particle.END_ROD;
-            player.getWorld().spawnParticle(auroraParticle, auroraLoc, 1, 0.1, 0.1, 0.1, 0.01);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, auroraParticle, auroraLoc, 1, 0.1, 0.1, 0.1, 0.01);
         }
         
         // Aurora sounds
@@ -332,7 +330,7 @@ public class DreamSequenceManager {
         double y = Math.sin(ticks * 0.12) * 0.4;
         
         Location spiralLoc = loc.clone().add(x, y, z);
-        player.getWorld().spawnParticle(Particle.SOUL_FIRE_FLAME, spiralLoc, 1, 0.05, 0.05, 0.05, 0.01);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.SOUL_FIRE_FLAME, spiralLoc, 1, 0.05, 0.05, 0.05, 0.01);
         
         // Deepening message
         if (ticks == 40) {
@@ -349,7 +347,7 @@ public class DreamSequenceManager {
             Location loc = player.getLocation().add(0, 1.5, 0);
             
             // Gentle dream maintenance particles
-            player.getWorld().spawnParticle(Particle.SOUL_FIRE_FLAME, loc, 1, 0.2, 0.2, 0.2, 0.005);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.SOUL_FIRE_FLAME, loc, 1, 0.2, 0.2, 0.2, 0.005);
             
             // Soft dream sound
             player.playSound(player.getLocation(), Sound.BLOCK_AMETHYST_BLOCK_CHIME, 0.05f, 2.5f);
@@ -362,7 +360,7 @@ public class DreamSequenceManager {
     public void endDreamSequence(Player player) {
         UUID uuid = player.getUniqueId();
         DreamState dreamState = activeDreams.remove(uuid);
-        BukkitTask task = dreamTasks.remove(uuid);
+        ScheduledEffect task = dreamTasks.remove(uuid);
         
         if (task != null && !task.isCancelled()) {
             task.cancel();
@@ -383,7 +381,7 @@ public class DreamSequenceManager {
             
             // Exit effects
             Location loc = player.getLocation().add(0, 1.5, 0);
-            player.getWorld().spawnParticle(Particle.TOTEM, loc, 5, 0.5, 0.5, 0.5, 0.1);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.TOTEM, loc, 5, 0.5, 0.5, 0.5, 0.1);
             player.playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 0.2f, 2.0f);
         }
     }
@@ -421,7 +419,7 @@ public class DreamSequenceManager {
      * Cleanup method
      */
     public void cleanup() {
-        for (BukkitTask task : dreamTasks.values()) {
+        for (ScheduledEffect task : dreamTasks.values()) {
             if (!task.isCancelled()) {
                 task.cancel();
             }
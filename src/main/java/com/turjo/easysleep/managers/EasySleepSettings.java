@@ -0,0 +1,308 @@
+package com.turjo.easysleep.managers;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Immutable snapshot of the settings read on hot paths
+ *
+ * Built once when the config is loaded or reloaded, so readers get plain
+ * field reads instead of YAML path lookups. Message text and lists are
+ * still read from the config itself.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public final class EasySleepSettings {
+
+    // Sleep
+    private final int defaultPercentage;
+    private final double timeAcceleration;
+    private final boolean autoConfigureNewWorlds;
+
+    // Animations
+    private final boolean animationsEnabled;
+    private final int animationIntensity;
+    private final boolean enhancedParticles;
+    private final int maxAnimationDistance;
+    private final boolean clockAnimation;
+    private final boolean dayNightAnimation;
+    private final boolean performanceMode;
+    private final String sleepParticle;
+    private final int maxParticlesPerEffect;
+    private final int particleBudgetPerTick;
+    private final int particleBudgetPerChunk;
+
+    // Sounds
+    private final boolean soundsEnabled;
+    private final double soundVolume;
+    private final String sleepSound;
+
+    // Features
+    private final boolean dayCounterEnabled;
+    private final boolean antiSpamEnabled;
+    private final int sleepMessageCooldown;
+    private final int wakeMessageCooldown;
+    private final int commandCooldown;
+    private final int antiSpamBurst;
+    private final boolean afkDetectionEnabled;
+    private final int afkThreshold;
+    private final boolean moonPhasesAffectRewards;
+
+    // Rewards
+    private final boolean rewardsEnabled;
+    private final boolean economyRewardsEnabled;
+    private final double moneyPerSleep;
+    private final double streakBonusMultiplier;
+    private final boolean experienceRewardsEnabled;
+    private final int xpPerSleep;
+    private final int levelsPerSleep;
+    private final boolean itemRewardsEnabled;
+    private final boolean effectRewardsEnabled;
+    private final boolean streakResetOnMiss;
+    private final boolean milestoneRewards;
+    private final boolean announceMilestones;
+    private final double rewardTickBudgetMillis;
+    private final int rewardMaxDelayTicks;
+
+    // Technical
+    private final boolean debugMode;
+    private final boolean performanceMonitoring;
+
+    // Indexed by MessageCategory.ordinal()
+    private final boolean[] messageCategories;
+
+    private EasySleepSettings(FileConfiguration config) {
+        defaultPercentage = config.getInt("sleep.default-percentage", 50);
+        timeAcceleration = config.getDouble("sleep.time-acceleration", 1.75);
+        autoConfigureNewWorlds = config.getBoolean("sleep.auto-configure-new-worlds", true);
+
+        animationsEnabled = config.getBoolean("animations.enabled", true);
+        animationIntensity = config.getInt("animations.intensity", 2);
+        enhancedParticles = config.getBoolean("animations.enhanced-particles", true);
+        maxAnimationDistance = config.getInt("animations.max-distance", 32);
+        clockAnimation = config.getBoolean("animations.clock-animation", true);
+        dayNightAnimation = config.getBoolean("animations.day-night-cycle", true);
+        performanceMode = config.getBoolean("animations.performance-mode", false);
+        sleepParticle = config.getString("animations.sleep-particle", "SOUL_FIRE_FLAME");
+        maxParticlesPerEffect = config.getInt("animations.max-particles-per-effect", 5);
+        particleBudgetPerTick = config.getInt("animations.particle-budget.per-tick", 400);
+        particleBudgetPerChunk = config.getInt("animations.particle-budget.per-chunk", 60);
+
+        soundsEnabled = config.getBoolean("sounds.enabled", true);
+        soundVolume = config.getDouble("sounds.master-volume", 0.3);
+        sleepSound = config.getString("sounds.sleep-sound.sound", "BLOCK_AMETHYST_BLOCK_CHIME");
+
+        dayCounterEnabled = config.getBoolean("features.day-counter.enabled", true);
+        antiSpamEnabled = config.getBoolean("features.anti-spam.enabled", true);
+        sleepMessageCooldown = config.getInt("features.anti-spam.sleep-message-cooldown", 5);
+        wakeMessageCooldown = config.getInt("features.anti-spam.wake-message-cooldown", 3);
+        commandCooldown = config.getInt("features.anti-spam.command-cooldown", 2);
+        antiSpamBurst = config.getInt("features.anti-spam.burst", 1);
+        afkDetectionEnabled = config.getBoolean("features.afk-detection.enabled", true);
+        afkThreshold = config.getInt("features.afk-detection.threshold-minutes", 5);
+        moonPhasesAffectRewards = config.getBoolean("features.moon-phases.affect-rewards", true);
+
+        rewardsEnabled = config.getBoolean("rewards.enabled", true);
+        economyRewardsEnabled = config.getBoolean("rewards.economy.enabled", true);
+        moneyPerSleep = config.getDouble("rewards.economy.money-per-sleep", 25.0);
+        streakBonusMultiplier = config.getDouble("rewards.economy.bonus-multiplier", 1.5);
+        experienceRewardsEnabled = config.getBoolean("rewards.experience.enabled", true);
+        xpPerSleep = config.getInt("rewards.experience.xp-per-sleep", 100);
+        levelsPerSleep = config.getInt("rewards.experience.levels-per-sleep", 0);
+        itemRewardsEnabled = config.getBoolean("rewards.items.enabled", true);
+        effectRewardsEnabled = config.getBoolean("rewards.effects.enabled", true);
+        streakResetOnMiss = config.getBoolean("rewards.streaks.reset-on-miss", false);
+        milestoneRewards = config.getBoolean("rewards.streaks.milestone-rewards", true);
+        announceMilestones = config.getBoolean("rewards.streaks.announce-milestones", true);
+        rewardTickBudgetMillis = config.getDouble("rewards.distribution.tick-budget-ms", 2.0);
+        rewardMaxDelayTicks = config.getInt("rewards.distribution.max-delay-ticks", 100);
+
+        debugMode = config.getBoolean("technical.debug-mode", false);
+        performanceMonitoring = config.getBoolean("technical.performance-monitoring", true);
+
+        MessageCategory[] categories = MessageCategory.values();
+        messageCategories = new boolean[categories.length];
+        for (MessageCategory category : categories) {
+            messageCategories[category.ordinal()] = config.getBoolean("messages.enabled." + category.getKey(), true);
+        }
+    }
+
+    /**
+     * Build a snapshot from the current config
+     */
+    public static EasySleepSettings load(FileConfiguration config) {
+        return new EasySleepSettings(config);
+    }
+
+    public int getDefaultPercentage() {
+        return defaultPercentage;
+    }
+
+    public double getTimeAcceleration() {
+        return timeAcceleration;
+    }
+
+    public boolean isAutoConfigureNewWorlds() {
+        return autoConfigureNewWorlds;
+    }
+
+    public boolean areAnimationsEnabled() {
+        return animationsEnabled;
+    }
+
+    public int getAnimationIntensity() {
+        return animationIntensity;
+    }
+
+    public boolean areEnhancedParticlesEnabled() {
+        return enhancedParticles;
+    }
+
+    public int getMaxAnimationDistance() {
+        return maxAnimationDistance;
+    }
+
+    public boolean isClockAnimationEnabled() {
+        return clockAnimation;
+    }
+
+    public boolean isDayNightAnimationEnabled() {
+        return dayNightAnimation;
+    }
+
+    public boolean isPerformanceMode() {
+        return performanceMode;
+    }
+
+    public String getSleepParticle() {
+        return sleepParticle;
+    }
+
+    public int getMaxParticlesPerEffect() {
+        return maxParticlesPerEffect;
+    }
+
+    public int getParticleBudgetPerTick() {
+        return particleBudgetPerTick;
+    }
+
+    public int getParticleBudgetPerChunk() {
+        return particleBudgetPerChunk;
+    }
+
+    public boolean areSoundsEnabled() {
+        return soundsEnabled;
+    }
+
+    public double getSoundVolume() {
+        return soundVolume;
+    }
+
+    public String getSleepSound() {
+        return sleepSound;
+    }
+
+    public boolean isDayCounterEnabled() {
+        return dayCounterEnabled;
+    }
+
+    public boolean isAntiSpamEnabled() {
+        return antiSpamEnabled;
+    }
+
+    public int getSleepMessageCooldown() {
+        return sleepMessageCooldown;
+    }
+
+    public int getWakeMessageCooldown() {
+        return wakeMessageCooldown;
+    }
+
+    public int getCommandCooldown() {
+        return commandCooldown;
+    }
+
+    public int getAntiSpamBurst() {
+        return antiSpamBurst;
+    }
+
+    public boolean isAFKDetectionEnabled() {
+        return afkDetectionEnabled;
+    }
+
+    public int getAFKThreshold() {
+        return afkThreshold;
+    }
+
+    public boolean doMoonPhasesAffectRewards() {
+        return moonPhasesAffectRewards;
+    }
+
+    public boolean areRewardsEnabled() {
+        return rewardsEnabled;
+    }
+
+    public boolean areEconomyRewardsEnabled() {
+        return economyRewardsEnabled;
+    }
+
+    public double getMoneyPerSleep() {
+        return moneyPerSleep;
+    }
+
+    public double getStreakBonusMultiplier() {
+        return streakBonusMultiplier;
+    }
+
+    public boolean areExperienceRewardsEnabled() {
+        return experienceRewardsEnabled;
+    }
+
+    public int getXpPerSleep() {
+        return xpPerSleep;
+    }
+
+    public int getLevelsPerSleep() {
+        return levelsPerSleep;
+    }
+
+    public boolean areItemRewardsEnabled() {
+        return itemRewardsEnabled;
+    }
+
+    public boolean areEffectRewardsEnabled() {
+        return effectRewardsEnabled;
+    }
+
+    public boolean isStreakResetOnMiss() {
+        return streakResetOnMiss;
+    }
+
+    public boolean areMilestoneRewardsEnabled() {
+        return milestoneRewards;
+    }
+
+    public boolean areMilestonesAnnounced() {
+        return announceMilestones;
+    }
+
+    public double getRewardTickBudgetMillis() {
+        return rewardTickBudgetMillis;
+    }
+
+    public int getRewardMaxDelayTicks() {
+        return rewardMaxDelayTicks;
+    }
+
+    public boolean isDebugMode() {
+        return debugMode;
+    }
+
+    public boolean isPerformanceMonitoringEnabled() {
+        return performanceMonitoring;
+    }
+
+    public boolean isMessageCategoryEnabled(MessageCategory category) {
+        return messageCategories[category.ordinal()];
+    }
+}
@@ -0,0 +1,376 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.utils.FileUtils;
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Batched, retried Vault deposits with a local ledger
+ *
+ * Deposits are queued from the main thread and paid in batches, one
+ * depositPlayer call per player per batch, on the main thread. Servers
+ * whose economy plugin is known to be thread-safe can opt in to paying
+ * from a single worker thread with rewards.economy.async-deposits.
+ * Every unpaid deposit is kept in economy-ledger.yml until the provider
+ * confirms it. Failures are retried with backoff; deposits that keep
+ * failing wait for the next restart.
+ * Payment is at least once: a crash between a payout and the ledger
+ * write pays that batch again on restart.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class EconomyTransactionQueue {
+
+    private static final long MAX_BACKOFF_MILLIS = 5 * 60 * 1000L;
+    private static final long SHUTDOWN_WAIT_SECONDS = 5L;
+
+    private final EasySleep plugin;
+    private final Economy economy;
+    private final File ledgerFile;
+    private final File pendingFile;
+    private final boolean async;
+    private final int maxAttempts;
+    private final ThreadPoolExecutor executor;
+    private final AtomicBoolean flushing;
+    private final BukkitTask flushTask;
+
+    // New deposits, handed from the main thread to whoever flushes next
+    private final Queue<Transaction> incoming;
+
+    // Unconfirmed deposits; only touched by the flushing thread
+    private final Map<UUID, Transaction> ledger;
+
+    // When the earliest retry is due, so idle ticks skip the flush
+    private volatile long nextDue;
+
+    /**
+     * One deposit waiting for confirmation
+     */
+    private static class Transaction {
+        final UUID id;
+        final UUID player;
+        // Resolved on the main thread so the worker never calls into Bukkit
+        final OfflinePlayer owner;
+        final double amount;
+        final long created;
+        int attempts;
+        long nextAttempt;
+        // Not persisted; deposits restored from the ledger pay silently
+        DoubleConsumer onPaid;
+
+        Transaction(UUID id, OfflinePlayer owner, double amount, long created) {
+            this.id = id;
+            this.player = owner.getUniqueId();
+            this.owner = owner;
+            this.amount = amount;
+            this.created = created;
+        }
+    }
+
+    public EconomyTransactionQueue(EasySleep plugin, Economy economy) {
+        this.plugin = plugin;
+        this.economy = economy;
+        this.ledgerFile = new File(plugin.getDataFolder(), "economy-ledger.yml");
+        this.pendingFile = new File(plugin.getDataFolder(), "economy-ledger-pending.yml");
+        this.incoming = new ConcurrentLinkedQueue<>();
+        this.ledger = new LinkedHashMap<>();
+        this.flushing = new AtomicBoolean();
+
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        this.async = config.getBoolean("rewards.economy.async-deposits", false);
+        this.maxAttempts = Math.max(1, config.getInt("rewards.economy.max-attempts", 5));
+        long interval = Math.max(1, config.getLong("rewards.economy.flush-interval-ticks", 20));
+
+        // One worker and room for one waiting flush; a flush covers everything queued
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), runnable -> {
+            Thread thread = new Thread(runnable, "EasySleep-Economy");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        loadLedger();
+        this.flushTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                requestFlush();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    /**
+     * Queue a deposit
+     *
+     * @param player The player to pay
+     * @param amount The amount
+     * @param onPaid Called on the main thread with the amount once paid, may be null
+     */
+    public void deposit(OfflinePlayer player, double amount, DoubleConsumer onPaid) {
+        if (amount <= 0) {
+            return;
+        }
+        Transaction transaction = new Transaction(UUID.randomUUID(), player, amount, System.currentTimeMillis());
+        transaction.onPaid = onPaid;
+        incoming.add(transaction);
+    }
+
+    /**
+     * Start a flush unless one is already running
+     */
+    private void requestFlush() {
+        if (incoming.isEmpty() && System.currentTimeMillis() < nextDue) {
+            return;
+        }
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (!async) {
+            runFlush();
+            return;
+        }
+        try {
+            executor.execute(this::runFlush);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the ledger is written in cleanup
+            flushing.set(false);
+        }
+    }
+
+    private void runFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("Could not flush economy deposits: " + e.getMessage());
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    /**
+     * Pay every due deposit, one provider call per player
+     */
+    private void flush() {
+        boolean changed = drainIncoming();
+        long now = System.currentTimeMillis();
+
+        Map<UUID, List<Transaction>> batches = new LinkedHashMap<>();
+        for (Transaction transaction : ledger.values()) {
+            if (transaction.attempts < maxAttempts && transaction.nextAttempt <= now) {
+                batches.computeIfAbsent(transaction.player, k -> new ArrayList<>()).add(transaction);
+            }
+        }
+
+        // Record new deposits before paying them
+        if (changed) {
+            saveLedger(ledgerFile, ledger.values());
+        }
+        if (batches.isEmpty()) {
+            updateNextDue();
+            return;
+        }
+
+        List<Transaction> paid = new ArrayList<>();
+        for (Map.Entry<UUID, List<Transaction>> batch : batches.entrySet()) {
+            List<Transaction> transactions = batch.getValue();
+            double total = 0;
+            for (Transaction transaction : transactions) {
+                total += transaction.amount;
+            }
+
+            if (pay(transactions.get(0).owner, total)) {
+                for (Transaction transaction : transactions) {
+                    ledger.remove(transaction.id);
+                    paid.add(transaction);
+                }
+            } else {
+                for (Transaction transaction : transactions) {
+                    transaction.attempts++;
+                    transaction.nextAttempt = now + Math.min(MAX_BACKOFF_MILLIS, 1000L << Math.min(transaction.attempts, 20));
+                    if (transaction.attempts == maxAttempts) {
+                        plugin.getLogger().warning("Giving up on $" + String.format("%.2f", transaction.amount)
+                            + " for " + transaction.player + " until restart (kept in " + ledgerFile.getName() + ")");
+                    }
+                }
+            }
+        }
+        saveLedger(ledgerFile, ledger.values());
+        updateNextDue();
+
+        if (!paid.isEmpty()) {
+            runOnMainThread(() -> {
+                for (Transaction transaction : paid) {
+                    if (transaction.onPaid != null) {
+                        transaction.onPaid.accept(transaction.amount);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Remember when the next retry is due
+     */
+    private void updateNextDue() {
+        long due = Long.MAX_VALUE;
+        for (Transaction transaction : ledger.values()) {
+            if (transaction.attempts < maxAttempts) {
+                due = Math.min(due, transaction.nextAttempt);
+            }
+        }
+        nextDue = due;
+    }
+
+    /**
+     * Make one provider call
+     * @return true if the provider confirmed the deposit
+     */
+    private boolean pay(OfflinePlayer player, double amount) {
+        UUID playerId = player.getUniqueId();
+        try {
+            EconomyResponse response = economy.depositPlayer(player, amount);
+            if (response.transactionSuccess()) {
+                if (plugin.getConfigManager().isDebugMode()) {
+                    plugin.getLogger().info("Successfully deposited $" + amount + " to " + playerId);
+                }
+                return true;
+            }
+            plugin.getLogger().warning("Failed to deposit money to " + playerId + ": " + response.errorMessage);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error depositing money to " + playerId + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Move queued deposits into the ledger
+     * @return true if anything was moved
+     */
+    private boolean drainIncoming() {
+        boolean changed = false;
+        Transaction transaction;
+        while ((transaction = incoming.poll()) != null) {
+            ledger.put(transaction.id, transaction);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private void runOnMainThread(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Restore unpaid deposits from the last run
+     */
+    private void loadLedger() {
+        readLedger(ledgerFile);
+        if (pendingFile.exists()) {
+            readLedger(pendingFile);
+            saveLedger(ledgerFile, ledger.values());
+            if (!pendingFile.delete()) {
+                plugin.getLogger().warning("Could not delete " + pendingFile.getName());
+            }
+        }
+
+        if (!ledger.isEmpty()) {
+            plugin.getLogger().info("Reconciling " + ledger.size() + " unpaid sleep reward deposit(s)");
+        }
+        nextDue = ledger.isEmpty() ? Long.MAX_VALUE : 0L;
+    }
+
+    /**
+     * Read ledger entries from a file
+     */
+    private void readLedger(File file) {
+        if (!file.exists()) {
+            return;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        for (String key : config.getKeys(false)) {
+            try {
+                Transaction transaction = new Transaction(UUID.fromString(key),
+                    Bukkit.getOfflinePlayer(UUID.fromString(config.getString(key + ".player", ""))),
+                    config.getDouble(key + ".amount", 0),
+                    config.getLong(key + ".created", 0));
+                if (transaction.amount > 0) {
+                    ledger.put(transaction.id, transaction);
+                }
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Skipping invalid economy ledger entry: " + key);
+            }
+        }
+    }
+
+    /**
+     * Write unconfirmed deposits to a ledger file
+     */
+    private void saveLedger(File file, Collection<Transaction> transactions) {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Transaction transaction : transactions) {
+            String path = transaction.id.toString();
+            config.set(path + ".player", transaction.player.toString());
+            config.set(path + ".amount", transaction.amount);
+            config.set(path + ".created", transaction.created);
+        }
+
+        try {
+            FileUtils.writeAtomically(file, config.saveToString());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not save economy ledger: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cleanup method - stops paying and records what is left for the next start
+     */
+    public void cleanup() {
+        flushTask.cancel();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                // The worker still owns the ledger; park new deposits in a side file
+                plugin.getLogger().warning("Economy provider is slow; unpaid deposits are kept for the next start");
+                executor.shutdownNow();
+                saveLedger(pendingFile, new ArrayList<>(incoming));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            saveLedger(pendingFile, new ArrayList<>(incoming));
+            return;
+        }
+
+        drainIncoming();
+        saveLedger(ledgerFile, ledger.values());
+    }
+}
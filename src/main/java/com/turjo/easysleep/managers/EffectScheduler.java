@@ -0,0 +1,154 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single tick loop for every particle and sound animation
+ *
+ * Effects are kept in a hashed timing wheel keyed by the tick they are
+ * next due, so one Bukkit task drives all of them no matter how many
+ * players are sleeping, and each tick only touches the effects due now.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class EffectScheduler {
+
+    private static final int WHEEL_SIZE = 64; // Power of two
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final EasySleep plugin;
+    private final PerformanceMonitor monitor;
+    private final List<List<ScheduledEffect>> wheel;
+    private List<ScheduledEffect> spare;
+    private long currentTick;
+    private int activeEffects;
+    private BukkitTask task;
+
+    public EffectScheduler(EasySleep plugin) {
+        this.plugin = plugin;
+        this.monitor = plugin.getPerformanceMonitor();
+        this.wheel = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.spare = new ArrayList<>();
+        startTicker();
+    }
+
+    /**
+     * Start the shared tick task
+     */
+    private void startTicker() {
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    /**
+     * Add an effect to the wheel
+     */
+    void submit(ScheduledEffect effect, long delay, long period) {
+        effect.period = Math.max(1L, period);
+        effect.startTick = currentTick;
+        effect.nextRun = currentTick + Math.max(1L, delay);
+        effect.timer = monitor.timer(subsystemName(effect));
+        wheel.get((int) (effect.nextRun & WHEEL_MASK)).add(effect);
+        activeEffects++;
+    }
+
+    /**
+     * Run every effect due this tick and re-queue the repeating ones
+     */
+    private void tick() {
+        currentTick++;
+        int slot = (int) (currentTick & WHEEL_MASK);
+
+        List<ScheduledEffect> due = wheel.get(slot);
+        wheel.set(slot, spare);
+
+        for (int i = 0; i < due.size(); i++) {
+            ScheduledEffect effect = due.get(i);
+            if (effect.isCancelled()) {
+                activeEffects--;
+                continue;
+            }
+
+            // Due in a later rotation of the wheel
+            if (effect.nextRun != currentTick) {
+                wheel.get(slot).add(effect);
+                continue;
+            }
+
+            long start = monitor.start();
+            try {
+                effect.run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().warning("Could not run effect: " + e.getMessage());
+                effect.cancel();
+            }
+            monitor.stop(effect.timer, start);
+
+            if (effect.lifetime > 0 && currentTick - effect.startTick >= effect.lifetime) {
+                effect.cancel();
+            }
+            if (effect.isCancelled()) {
+                activeEffects--;
+                continue;
+            }
+
+            effect.nextRun = currentTick + effect.period;
+            wheel.get((int) (effect.nextRun & WHEEL_MASK)).add(effect);
+        }
+
+        due.clear();
+        spare = due;
+    }
+
+    /**
+     * Name effects after the manager that created them, e.g. DreamSequence
+     */
+    private static String subsystemName(ScheduledEffect effect) {
+        Class<?> owner = effect.getClass().getEnclosingClass();
+        String name = (owner != null ? owner : effect.getClass()).getSimpleName();
+        return name.endsWith("Manager") ? name.substring(0, name.length() - "Manager".length()) : name;
+    }
+
+    /**
+     * Get the scheduler's tick counter
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Get number of scheduled effects (cancelled ones count until their slot comes round)
+     */
+    public int getActiveEffectCount() {
+        return activeEffects;
+    }
+
+    /**
+     * Cleanup method
+     */
+    public void cleanup() {
+        if (task != null) {
+            task.cancel();
+        }
+        for (List<ScheduledEffect> slot : wheel) {
+            for (ScheduledEffect effect : slot) {
+                effect.cancel();
+            }
+            slot.clear();
+        }
+        activeEffects = 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.turjo.easysleep.managers;
+
+/**
+ * Message categories that can be toggled under messages.enabled
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public enum MessageCategory {
+    SLEEP_MESSAGES("sleep-messages"),
+    NIGHT_SKIP_MESSAGES("night-skip-messages"),
+    TIME_ACCELERATION("time-acceleration"),
+    REWARD_MESSAGES("reward-messages"),
+    DREAM_MESSAGES("dream-messages"),
+    RITUAL_MESSAGES("ritual-messages"),
+    MOON_PHASE_MESSAGES("moon-phase-messages"),
+    DAY_COUNTER_MESSAGES("day-counter-messages"),
+    COMMAND_RESPONSES("command-responses"),
+    ERROR_MESSAGES("error-messages"),
+    ACHIEVEMENT_MESSAGES("achievement-messages"),
+    ECONOMY_MESSAGES("economy-messages"),
+    QUANTUM_MESSAGES("quantum-messages"),
+    DIMENSIONAL_MESSAGES("dimensional-messages");
+
+    private final String key;
+
+    MessageCategory(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Get the key under messages.enabled
+     */
+    public String getKey() {
+        return key;
+    }
+}
@@ -1,26 +1,24 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.utils.BroadcastBatch;
 import com.turjo.easysleep.utils.MessageUtils;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * 🌙 EXCLUSIVE MOON PHASE MANAGER 🌙
  * Revolutionary lunar cycle system with unique sleep bonuses
  * 
+ * The phase is read straight from the world clock; changes are reported
+ * by the WorldClockService.
+ * 
  * @author Turjo
  * @version 1.4.1
  */
-public class MoonPhaseManager {
+public class MoonPhaseManager implements WorldClockListener {
     
     private final EasySleep plugin;
-    private final Map<String, MoonPhase> worldMoonPhases;
-    private final Map<String, Long> lastPhaseCheck;
     
     // Moon phases with unique effects
     public enum MoonPhase {
@@ -53,54 +51,19 @@ public class MoonPhaseManager {
     
     public MoonPhaseManager(EasySleep plugin) {
         this.plugin = plugin;
-        this.worldMoonPhases = new HashMap<>();
-        this.lastPhaseCheck = new HashMap<>();
-        startMoonPhaseTracking();
-    }
-    
-    /**
-     * 🌟 Start moon phase tracking system
-     */
-    private void startMoonPhaseTracking() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                for (World world : plugin.getServer().getWorlds()) {
-                    updateMoonPhase(world);
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 1200L); // Check every minute
-    }
-    
-    /**
-     * 🌟 Update moon phase for world
-     */
-    private void updateMoonPhase(World world) {
-        String worldName = world.getName();
-        long currentDay = world.getFullTime() / 24000L;
-        long lastCheck = lastPhaseCheck.getOrDefault(worldName, -1L);
-        
-        if (currentDay != lastCheck) {
-            MoonPhase oldPhase = worldMoonPhases.get(worldName);
-            MoonPhase newPhase = calculateMoonPhase(currentDay);
-            
-            worldMoonPhases.put(worldName, newPhase);
-            lastPhaseCheck.put(worldName, currentDay);
-            
-            // Announce phase change if different
-            if (oldPhase != newPhase) {
-                announceMoonPhaseChange(world, newPhase);
-                createMoonPhaseEffects(world, newPhase);
-            }
-        }
+        plugin.getWorldClockService().subscribe(this);
     }
     
     /**
-     * 🌟 Calculate moon phase based on day
+     * 🌟 Announce a moon phase change
      */
-    private MoonPhase calculateMoonPhase(long day) {
-        int cycle = (int) (day % 8); // 8-day lunar cycle
-        return MoonPhase.values()[cycle];
+    @Override
+    public void onMoonPhaseChange(World world, int previousPhase, int phase) {
+        long start = plugin.getPerformanceMonitor().start();
+        MoonPhase newPhase = MoonPhase.values()[phase];
+        announceMoonPhaseChange(world, newPhase);
+        createMoonPhaseEffects(world, newPhase);
+        plugin.getPerformanceMonitor().stop("MoonPhase", start);
     }
     
     /**
@@ -112,14 +75,16 @@ public class MoonPhaseManager {
             return;
         }
         
-        MessageUtils.broadcastToWorld(world, "");
-        MessageUtils.broadcastToWorld(world, "&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-        MessageUtils.broadcastToWorld(world, "&f🌙 &f&lLUNAR PHASE TRANSITION &f🌙");
-        MessageUtils.broadcastToWorld(world, "&7✨ &fCurrent Phase: " + moonPhase.getSymbol() + " &e" + moonPhase.getName());
-        MessageUtils.broadcastToWorld(world, "&7🌟 &fSleep Bonus: &a+" + (int)((moonPhase.getSleepBonus() - 1.0) * 100) + "%");
-        MessageUtils.broadcastToWorld(world, "&7💫 &fLunar Energy: &b" + moonPhase.getDescription());
-        MessageUtils.broadcastToWorld(world, "&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-        MessageUtils.broadcastToWorld(world, "");
+        BroadcastBatch.toWorld(world)
+            .line("")
+            .line("&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━")
+            .line("&f🌙 &f&lLUNAR PHASE TRANSITION &f🌙")
+            .line("&7✨ &fCurrent Phase: " + moonPhase.getSymbol() + " &e" + moonPhase.getName())
+            .line("&7🌟 &fSleep Bonus: &a+" + (int)((moonPhase.getSleepBonus() - 1.0) * 100) + "%")
+            .line("&7💫 &fLunar Energy: &b" + moonPhase.getDescription())
+            .line("&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━")
+            .line("")
+            .send();
     }
     
     /**
@@ -173,7 +138,7 @@ public class MoonPhaseManager {
             double z = Math.sin(Math.toRadians(angle)) * radius;
             
             Location effectLoc = center.clone().add(x, 0, z);
-            world.spawnParticle(Particle.SMOKE_LARGE, effectLoc, 2, 0.5, 0.5, 0.5, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.SMOKE_LARGE, effectLoc, 2, 0.5, 0.5, 0.5, 0.02);
         }
     }
     
@@ -189,7 +154,7 @@ public class MoonPhaseManager {
             double z = Math.sin(Math.toRadians(angle)) * radius;
             
             Location effectLoc = center.clone().add(x, 0, z);
-            world.spawnParticle(Particle.END_ROD, effectLoc, 1, 0.2, 0.2, 0.2, 0.01);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.END_ROD, effectLoc, 1, 0.2, 0.2, 0.2, 0.01);
         }
     }
     
@@ -206,7 +171,7 @@ public class MoonPhaseManager {
             
             Location effectLoc = center.clone().add(x, 0, z);
             Particle particle = (i % 2 == 0) ? Particle.SOUL_FIRE_FLAME : Particle.SMOKE_NORMAL;
-            world.spawnParticle(particle, effectLoc, 1, 0.3, 0.3, 0.3, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, particle, effectLoc, 1, 0.3, 0.3, 0.3, 0.02);
         }
     }
     
@@ -222,7 +187,7 @@ public class MoonPhaseManager {
             double z = Math.sin(Math.toRadians(angle)) * radius;
             
             Location effectLoc = center.clone().add(x, 0, z);
-            world.spawnParticle(Particle.ENCHANTMENT_TABLE, effectLoc, 2, 0.4, 0.4, 0.4, 0.03);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.ENCHANTMENT_TABLE, effectLoc, 2, 0.4, 0.4, 0.4, 0.03);
         }
     }
     
@@ -239,11 +204,11 @@ public class MoonPhaseManager {
             double y = Math.sin(Math.toRadians(angle * 2)) * 2.0;
             
             Location effectLoc = center.clone().add(x, y, z);
-            world.spawnParticle(Particle.TOTEM, effectLoc, 3, 0.5, 0.5, 0.5, 0.05);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.TOTEM, effectLoc, 3, 0.5, 0.5, 0.5, 0.05);
         }
         
         // Central energy burst
-        world.spawnParticle(Particle.SOUL_FIRE_FLAME, center, 20, 3.0, 3.0, 3.0, 0.1);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.SOUL_FIRE_FLAME, center, 20, 3.0, 3.0, 3.0, 0.1);
         
         // Lightning effect for dramatic impact
         world.strikeLightningEffect(center);
@@ -261,7 +226,7 @@ public class MoonPhaseManager {
             double z = Math.sin(Math.toRadians(angle)) * radius;
             
             Location effectLoc = center.clone().add(x, 0, z);
-            world.spawnParticle(Particle.SOUL, effectLoc, 1, 0.3, 0.3, 0.3, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.SOUL, effectLoc, 1, 0.3, 0.3, 0.3, 0.02);
         }
     }
     
@@ -277,7 +242,7 @@ public class MoonPhaseManager {
             double z = Math.sin(Math.toRadians(angle)) * radius;
             
             Location effectLoc = center.clone().add(x, 0, z);
-            world.spawnParticle(Particle.CLOUD, effectLoc, 2, 0.4, 0.4, 0.4, 0.03);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.CLOUD, effectLoc, 2, 0.4, 0.4, 0.4, 0.03);
         }
     }
     
@@ -293,7 +258,7 @@ public class MoonPhaseManager {
             double z = Math.sin(Math.toRadians(angle)) * radius;
             
             Location effectLoc = center.clone().add(x, 0, z);
-            world.spawnParticle(Particle.PORTAL, effectLoc, 1, 0.2, 0.2, 0.2, 0.01);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.LOW, Particle.PORTAL, effectLoc, 1, 0.2, 0.2, 0.2, 0.01);
         }
     }
     
@@ -334,7 +299,7 @@ public class MoonPhaseManager {
             
             // Lunar blessing effects
             Location loc = player.getLocation().add(0, 1.5, 0);
-            player.getWorld().spawnParticle(Particle.TOTEM, loc, 5, 0.5, 0.5, 0.5, 0.1);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.TOTEM, loc, 5, 0.5, 0.5, 0.5, 0.1);
             player.playSound(player.getLocation(), Sound.BLOCK_BEACON_POWER_SELECT, 0.3f, 1.8f);
         }
     }
@@ -343,7 +308,7 @@ public class MoonPhaseManager {
      * Get current moon phase for world
      */
     public MoonPhase getCurrentMoonPhase(World world) {
-        return worldMoonPhases.get(world.getName());
+        return MoonPhase.values()[WorldClockService.getMoonPhase(world.getFullTime())]; // 8-day lunar cycle
     }
     
     /**
@@ -362,7 +327,6 @@ public class MoonPhaseManager {
      * Cleanup method
      */
     public void cleanup() {
-        worldMoonPhases.clear();
-        lastPhaseCheck.clear();
+        plugin.getWorldClockService().unsubscribe(this);
     }
 }
\ No newline at end of file
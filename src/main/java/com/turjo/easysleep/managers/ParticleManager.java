@@ -0,0 +1,290 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Global particle budget
+ *
+ * Every animation spawns its particles through here. Each server tick has
+ * a global cap and each chunk a local one; lower priorities only get a
+ * share of those caps, so cosmetics are shed first when things get busy
+ * and night-skip completions still go through.
+ *
+ * Effects with no player within animations.max-distance are skipped, and
+ * when only a few players can see one it is sent to them directly instead
+ * of being broadcast by the world.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class ParticleManager implements WorldSlotListener {
+
+    /**
+     * Particle priority; the share is the fraction of each cap it may use
+     */
+    public enum Priority {
+        LOW(0.5),      // Clock, ambient dream and moon effects
+        NORMAL(0.85),  // Sleep and ritual animations
+        HIGH(1.0);     // Night skip, rewards and achievements
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private static final int CHUNK_SLOTS = 512; // Power of two
+    private static final int CHUNK_MASK = CHUNK_SLOTS - 1;
+    private static final int MAX_PROBES = 16;
+    private static final int DIRECT_VIEWER_LIMIT = 4;
+
+    private final EasySleep plugin;
+
+    // Per-chunk usage for the current tick; stale slots are recognised by their stamp
+    private final long[] chunkKeys;
+    private final int[] chunkUsed;
+    private final long[] chunkStamps;
+
+    // Player positions per world, captured once per tick
+    private ViewerSnapshot[] viewers;
+    private final Player[] nearby;
+
+    private int perTickCap;
+    private int perChunkCap;
+    private int perEffectCap;
+    private double maxDistanceSquared;
+
+    private long currentTick = -1;
+    private int usedThisTick;
+    private long emitted;
+    private long shed;
+    private long culled;
+
+    /**
+     * Positions of the players in one world at the start of a tick
+     */
+    private static class ViewerSnapshot {
+        long tick = -1;
+        int size;
+        Player[] players = new Player[16];
+        double[] x = new double[16];
+        double[] y = new double[16];
+        double[] z = new double[16];
+        final Location scratch = new Location(null, 0, 0, 0);
+
+        void capture(World world, long tick) {
+            List<Player> online = world.getPlayers();
+            if (online.size() > players.length) {
+                int length = Math.max(online.size(), players.length * 2);
+                players = new Player[length];
+                x = new double[length];
+                y = new double[length];
+                z = new double[length];
+            }
+
+            Arrays.fill(players, null);
+            size = 0;
+            for (Player player : online) {
+                player.getLocation(scratch);
+                players[size] = player;
+                x[size] = scratch.getX();
+                y[size] = scratch.getY();
+                z[size] = scratch.getZ();
+                size++;
+            }
+            this.tick = tick;
+        }
+    }
+
+    public ParticleManager(EasySleep plugin) {
+        this.plugin = plugin;
+        this.chunkKeys = new long[CHUNK_SLOTS];
+        this.chunkUsed = new int[CHUNK_SLOTS];
+        this.chunkStamps = new long[CHUNK_SLOTS];
+        Arrays.fill(chunkStamps, -1L);
+        this.viewers = new ViewerSnapshot[0];
+        plugin.getWorldRegistry().subscribe(this);
+        this.nearby = new Player[DIRECT_VIEWER_LIMIT];
+        reload();
+    }
+
+    /**
+     * Load budget settings from config
+     */
+    public void reload() {
+        EasySleepSettings settings = plugin.getConfigManager().getSettings();
+        perTickCap = Math.max(1, settings.getParticleBudgetPerTick());
+        perChunkCap = Math.max(1, settings.getParticleBudgetPerChunk());
+        perEffectCap = Math.max(1, settings.getMaxParticlesPerEffect());
+
+        double maxDistance = settings.getMaxAnimationDistance();
+        maxDistanceSquared = maxDistance * maxDistance;
+
+        if (settings.isPerformanceMode()) {
+            perTickCap = Math.max(1, perTickCap / 2);
+            perChunkCap = Math.max(1, perChunkCap / 2);
+        }
+    }
+
+    /**
+     * Spawn particles if the budget allows it
+     * @return true if the particles were spawned
+     */
+    public boolean spawn(Priority priority, Particle particle, Location location, int count,
+                         double offsetX, double offsetY, double offsetZ, double extra) {
+        World world = location.getWorld();
+        if (world == null || count <= 0) {
+            return false;
+        }
+
+        long tick = plugin.getEffectScheduler().getCurrentTick();
+        if (tick != currentTick) {
+            currentTick = tick;
+            usedThisTick = 0;
+        }
+
+        int amount = Math.min(count, perEffectCap);
+        if (usedThisTick + amount > (int) (perTickCap * priority.share)) {
+            shed += amount;
+            return false;
+        }
+
+        int slot = findChunkSlot(world, location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        if (slot >= 0 && chunkUsed[slot] + amount > (int) (perChunkCap * priority.share)) {
+            shed += amount;
+            return false;
+        }
+
+        int viewerCount = collectViewers(world, location);
+        if (viewerCount == 0) {
+            culled += amount;
+            return false;
+        }
+
+        if (viewerCount <= DIRECT_VIEWER_LIMIT) {
+            for (int i = 0; i < viewerCount; i++) {
+                nearby[i].spawnParticle(particle, location, amount, offsetX, offsetY, offsetZ, extra);
+                nearby[i] = null;
+            }
+        } else {
+            world.spawnParticle(particle, location, amount, offsetX, offsetY, offsetZ, extra);
+        }
+        usedThisTick += amount;
+        if (slot >= 0) {
+            chunkUsed[slot] += amount;
+        }
+        emitted += amount;
+        return true;
+    }
+
+    /**
+     * Count players within animation distance of a location, keeping the
+     * first few in the nearby buffer
+     * @return viewer count, capped at one more than the direct viewer limit
+     */
+    private int collectViewers(World world, Location location) {
+        int slot = plugin.getWorldRegistry().getSlot(world);
+        viewers = WorldRegistry.fit(viewers, slot);
+        ViewerSnapshot snapshot = viewers[slot];
+        if (snapshot == null) {
+            snapshot = new ViewerSnapshot();
+            viewers[slot] = snapshot;
+        }
+        if (snapshot.tick != currentTick) {
+            snapshot.capture(world, currentTick);
+        }
+
+        double px = location.getX();
+        double py = location.getY();
+        double pz = location.getZ();
+        int count = 0;
+        for (int i = 0; i < snapshot.size; i++) {
+            double dx = snapshot.x[i] - px;
+            double dy = snapshot.y[i] - py;
+            double dz = snapshot.z[i] - pz;
+            if (dx * dx + dy * dy + dz * dz > maxDistanceSquared) {
+                continue;
+            }
+            if (count < DIRECT_VIEWER_LIMIT) {
+                nearby[count] = snapshot.players[i];
+            }
+            if (++count > DIRECT_VIEWER_LIMIT) {
+                // Broadcasting anyway, no need to keep the references
+                Arrays.fill(nearby, null);
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Drop the cached positions for an unloaded world
+     */
+    @Override
+    public void onWorldRemoved(World world, int slot) {
+        if (slot < viewers.length) {
+            viewers[slot] = null;
+        }
+    }
+
+    /**
+     * Find or claim the usage slot for a chunk this tick
+     * @return slot index, or -1 if the table is too crowded (only the global cap applies)
+     */
+    private int findChunkSlot(World world, int chunkX, int chunkZ) {
+        long key = ((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL) ^ ((long) world.hashCode() * 0x9E3779B97F4A7C15L);
+        int index = (int) (key ^ (key >>> 29)) & CHUNK_MASK;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (index + probe) & CHUNK_MASK;
+            if (chunkStamps[slot] != currentTick) {
+                chunkStamps[slot] = currentTick;
+                chunkKeys[slot] = key;
+                chunkUsed[slot] = 0;
+                return slot;
+            }
+            if (chunkKeys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get total particles spawned since startup
+     */
+    public long getEmittedCount() {
+        return emitted;
+    }
+
+    /**
+     * Get total particles dropped by the budget since startup
+     */
+    public long getShedCount() {
+        return shed;
+    }
+
+    /**
+     * Get total particles skipped because nobody was close enough to see them
+     */
+    public long getCulledCount() {
+        return culled;
+    }
+
+    /**
+     * Cleanup method
+     */
+    public void cleanup() {
+        plugin.getWorldRegistry().unsubscribe(this);
+        viewers = new ViewerSnapshot[0];
+        Arrays.fill(nearby, null);
+    }
+}
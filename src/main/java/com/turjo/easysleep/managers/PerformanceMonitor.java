@@ -0,0 +1,206 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tick-time profiler for the plugin's subsystems
+ *
+ * Scheduled tasks, effects and event handlers add their nanoTime cost to
+ * a named timer; once per tick each timer's total goes into a ring of the
+ * last WINDOW ticks, from which /sleep perf reports percentiles.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class PerformanceMonitor {
+
+    private static final int WINDOW = 1200; // One minute of ticks
+
+    private final EasySleep plugin;
+    private final Map<String, Timer> timers;
+    private boolean enabled;
+    private BukkitTask task;
+
+    /**
+     * Rolling per-tick cost of one subsystem
+     */
+    public static class Timer {
+        private final String name;
+        private final long[] samples = new long[WINDOW];
+        private int index;
+        private int size;
+        private long pending;
+        private long calls;
+        private long max;
+
+        Timer(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Close the current tick
+         */
+        void roll() {
+            samples[index] = pending;
+            index = (index + 1) % WINDOW;
+            if (size < WINDOW) {
+                size++;
+            }
+            if (pending > max) {
+                max = pending;
+            }
+            pending = 0;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get total number of timed calls
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * Get worst tick seen since startup in milliseconds
+         */
+        public double getMaxMillis() {
+            return max / 1_000_000.0;
+        }
+
+        /**
+         * Get average cost per tick over the window in milliseconds
+         */
+        public double getAverageMillis() {
+            if (size == 0) {
+                return 0;
+            }
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                total += samples[i];
+            }
+            return total / (double) size / 1_000_000.0;
+        }
+
+        /**
+         * Get per-tick cost percentiles over the window in milliseconds
+         */
+        public double[] getPercentileMillis(double... percentiles) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+
+            double[] result = new double[percentiles.length];
+            for (int i = 0; i < percentiles.length; i++) {
+                if (size == 0) {
+                    continue;
+                }
+                int rank = (int) Math.ceil(percentiles[i] / 100.0 * size) - 1;
+                result[i] = sorted[Math.max(0, Math.min(size - 1, rank))] / 1_000_000.0;
+            }
+            return result;
+        }
+    }
+
+    public PerformanceMonitor(EasySleep plugin) {
+        this.plugin = plugin;
+        this.timers = new LinkedHashMap<>();
+        reload();
+    }
+
+    /**
+     * Load settings from config and start or stop sampling
+     */
+    public void reload() {
+        enabled = plugin.getConfigManager().getSettings().isPerformanceMonitoringEnabled();
+
+        if (enabled && task == null) {
+            task = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    for (Timer timer : timers.values()) {
+                        timer.roll();
+                    }
+                }
+            }.runTaskTimer(plugin, 1L, 1L);
+        } else if (!enabled && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Get the timer for a subsystem, creating it on first use
+     */
+    public Timer timer(String name) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            timer = new Timer(name);
+            timers.put(name, timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Start timing a section
+     * @return start time to pass to stop(), or 0 when monitoring is disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Stop timing a section and charge it to a timer
+     */
+    public void stop(Timer timer, long start) {
+        if (start == 0L || !enabled) {
+            return;
+        }
+        timer.pending += System.nanoTime() - start;
+        timer.calls++;
+    }
+
+    /**
+     * Stop timing a section and charge it to a named timer
+     */
+    public void stop(String name, long start) {
+        if (start == 0L || !enabled) {
+            return;
+        }
+        stop(timer(name), start);
+    }
+
+    /**
+     * Check if monitoring is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get all timers in the order they were first used
+     */
+    public Collection<Timer> getTimers() {
+        return new ArrayList<>(timers.values());
+    }
+
+    /**
+     * Cleanup method
+     */
+    public void cleanup() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        timers.clear();
+    }
+}
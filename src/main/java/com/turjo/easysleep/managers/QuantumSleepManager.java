@@ -1,6 +1,7 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.utils.BroadcastBatch;
 import com.turjo.easysleep.utils.MessageUtils;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
@@ -42,8 +43,10 @@ public class QuantumSleepManager {
         new BukkitRunnable() {
             @Override
             public void run() {
+                long start = plugin.getPerformanceMonitor().start();
                 checkQuantumEntanglement();
                 maintainQuantumCoherence();
+                plugin.getPerformanceMonitor().stop("QuantumSleep", start);
             }
         }.runTaskTimer(plugin, 0L, 40L); // Check every 2 seconds
     }
@@ -56,14 +59,8 @@ public class QuantumSleepManager {
         
         // Collect sleeping players from all worlds
         for (World world : plugin.getServer().getWorlds()) {
-            List<Player> sleepers = new ArrayList<>();
-            for (Player player : world.getPlayers()) {
-                if (player.isSleeping() && !plugin.getAFKManager().isPlayerAFK(player)) {
-                    sleepers.add(player);
-                }
-            }
-            if (!sleepers.isEmpty()) {
-                worldSleepers.put(world.getName(), sleepers);
+            if (plugin.getSleepStateIndex().getSleepingCount(world) > 0) {
+                worldSleepers.put(world.getName(), new ArrayList<>(plugin.getSleepStateIndex().getSleepers(world)));
             }
         }
         
@@ -94,16 +91,17 @@ public class QuantumSleepManager {
         // Announce quantum entanglement
         for (List<Player> sleepers : worldSleepers.values()) {
             World world = sleepers.get(0).getWorld();
-            if (plugin.getConfigManager().isMessageCategoryEnabled("quantum-messages")) {
-                MessageUtils.broadcastToWorld(world, "");
-                MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-                MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("quantum.entanglement-detected"));
-                MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("quantum.cross-dimensional-sync"));
-                MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("quantum.entangled-players", 
-                    "%count%", String.valueOf(entangledPlayers.size()), "%dimensions%", String.valueOf(worldSleepers.size())));
-                MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("quantum.quantum-coherence"));
-                MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getBorderLine());
-                MessageUtils.broadcastToWorld(world, "");
+            if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.QUANTUM_MESSAGES)) {
+                BroadcastBatch.toWorld(world)
+                    .line("")
+                    .line(plugin.getConfigManager().getBorderLine())
+                    .line(plugin.getConfigManager().getMessage("quantum.entanglement-detected"))
+                    .line(plugin.getConfigManager().getMessage("quantum.cross-dimensional-sync"))
+                    .line(plugin.getConfigManager().getMessage("quantum.entangled-players", "%count%", String.valueOf(entangledPlayers.size()), "%dimensions%", String.valueOf(worldSleepers.size())))
+                    .line(plugin.getConfigManager().getMessage("quantum.quantum-coherence"))
+                    .line(plugin.getConfigManager().getBorderLine())
+                    .line("")
+                    .send();
             }
         }
         
@@ -115,7 +113,7 @@ public class QuantumSleepManager {
      * 🌟 Start quantum effects across dimensions
      */
     private void startQuantumEffects(String networkId, Map<String, List<Player>> worldSleepers) {
-        new BukkitRunnable() {
+        new ScheduledEffect() {
             int ticks = 0;
             
             @Override
@@ -158,7 +156,7 @@ public class QuantumSleepManager {
                 
                 ticks++;
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 0L, 1L);
     }
     
     /**
@@ -179,12 +177,12 @@ public class QuantumSleepManager {
             
             // Quantum particles (alternating colors)
             Particle quantumParticle = (i % 2 == 0) ? Particle.END_ROD : Particle.SOUL_FIRE_FLAME;
-            player.getWorld().spawnParticle(quantumParticle, quantumLoc, 1, 0.05, 0.05, 0.05, 0.01);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, quantumParticle, quantumLoc, 1, 0.05, 0.05, 0.05, 0.01);
         }
         
         // Quantum probability cloud every 2 seconds
         if (ticks % 40 == 0) {
-            player.getWorld().spawnParticle(Particle.PORTAL, loc, 3, 0.5, 0.5, 0.5, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.PORTAL, loc, 3, 0.5, 0.5, 0.5, 0.02);
         }
     }
     
@@ -200,11 +198,11 @@ public class QuantumSleepManager {
                 Location center = calculateWorldCenter(sleepers);
                 
                 // Quantum pulse effect
-                world.spawnParticle(Particle.TOTEM, center, 5, 2.0, 2.0, 2.0, 0.1);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.HIGH, Particle.TOTEM, center, 5, 2.0, 2.0, 2.0, 0.1);
                 world.playSound(center, Sound.BLOCK_BEACON_POWER_SELECT, 0.2f, 2.0f);
                 
                 // Broadcast resonance message
-                if (plugin.getConfigManager().isMessageCategoryEnabled("quantum-messages")) {
+                if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.QUANTUM_MESSAGES)) {
                     MessageUtils.broadcastToWorld(world, plugin.getConfigManager().getMessage("quantum.synchronization-pulse"));
                 }
             }
@@ -244,13 +242,13 @@ public class QuantumSleepManager {
             Player player = plugin.getServer().getPlayer(uuid);
             if (player != null && player.isOnline()) {
                 // Quantum decoherence message
-                if (plugin.getConfigManager().isMessageCategoryEnabled("quantum-messages")) {
+                if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.QUANTUM_MESSAGES)) {
                     MessageUtils.sendMessage(player, plugin.getConfigManager().getMessage("quantum.entanglement-collapsed"));
                 }
                 
                 // Decoherence effect
                 Location loc = player.getLocation().add(0, 1.5, 0);
-                player.getWorld().spawnParticle(Particle.SMOKE_LARGE, loc, 5, 0.5, 0.5, 0.5, 0.05);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.SMOKE_LARGE, loc, 5, 0.5, 0.5, 0.5, 0.05);
                 player.playSound(player.getLocation(), Sound.BLOCK_BEACON_DEACTIVATE, 0.3f, 0.8f);
             }
         }
@@ -0,0 +1,211 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Spreads per-player reward work over several ticks
+ *
+ * Jobs are queued per world (by WorldRegistry slot) and drained round-robin
+ * across worlds, oldest first within a world, until the per-tick time
+ * budget is used up. At least one job runs every tick, jobs that waited
+ * longer than the maximum delay run regardless of the budget, and a
+ * player's pending jobs run when they quit or the plugin disables, so
+ * nothing queued is lost.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class RewardDistributor {
+
+    private final EasySleep plugin;
+    private ArrayDeque<Job>[] queues;
+    private int pending;
+    private int cursor;
+    private long currentTick;
+    private BukkitTask drainTask;
+
+    /**
+     * One piece of work for one player
+     */
+    private static class Job {
+        final Player player;
+        final Consumer<Player> action;
+        final long queuedTick;
+
+        Job(Player player, Consumer<Player> action, long queuedTick) {
+            this.player = player;
+            this.action = action;
+            this.queuedTick = queuedTick;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public RewardDistributor(EasySleep plugin) {
+        this.plugin = plugin;
+        this.queues = new ArrayDeque[0];
+    }
+
+    /**
+     * Queue work for a player
+     *
+     * @param player The player
+     * @param action What to do with the player once it is their turn
+     */
+    public void submit(Player player, Consumer<Player> action) {
+        int slot = plugin.getWorldRegistry().getSlot(player.getWorld());
+        queues = WorldRegistry.fit(queues, slot);
+        if (queues[slot] == null) {
+            queues[slot] = new ArrayDeque<>();
+        }
+        queues[slot].addLast(new Job(player, action, currentTick));
+        pending++;
+
+        if (drainTask == null) {
+            drainTask = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    long start = plugin.getPerformanceMonitor().start();
+                    drain();
+                    plugin.getPerformanceMonitor().stop("RewardDistributor", start);
+                }
+            }.runTaskTimer(plugin, 1L, 1L);
+        }
+    }
+
+    /**
+     * Run queued jobs until this tick's budget is spent
+     */
+    private void drain() {
+        currentTick++;
+        EasySleepSettings settings = plugin.getConfigManager().getSettings();
+        long budgetNanos = (long) (settings.getRewardTickBudgetMillis() * 1_000_000L);
+        long maxDelay = settings.getRewardMaxDelayTicks();
+        long start = System.nanoTime();
+        boolean ranOne = false;
+
+        while (pending > 0) {
+            // Always make progress, and once the budget is spent only run jobs past the maximum delay
+            ArrayDeque<Job> queue;
+            if (ranOne && System.nanoTime() - start >= budgetNanos) {
+                queue = findOverdueQueue(maxDelay);
+                if (queue == null) {
+                    break;
+                }
+            } else {
+                queue = nextQueue();
+            }
+
+            Job job = queue.pollFirst();
+            pending--;
+            run(job);
+            ranOne = true;
+        }
+
+        if (pending == 0) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+    }
+
+    /**
+     * Pick the next non-empty world queue, round-robin
+     */
+    private ArrayDeque<Job> nextQueue() {
+        for (int i = 0; i < queues.length; i++) {
+            int slot = cursor;
+            cursor = (cursor + 1) % queues.length;
+            ArrayDeque<Job> queue = queues[slot];
+            if (queue != null && !queue.isEmpty()) {
+                return queue;
+            }
+        }
+        throw new IllegalStateException("No queued jobs, pending=" + pending);
+    }
+
+    /**
+     * Find a world queue whose oldest job is past the maximum delay
+     *
+     * @return The queue, or null if no job is overdue
+     */
+    private ArrayDeque<Job> findOverdueQueue(long maxDelay) {
+        for (ArrayDeque<Job> queue : queues) {
+            // Jobs are queued in order, so the head is the oldest in its world
+            Job head = queue == null ? null : queue.peekFirst();
+            if (head != null && currentTick - head.queuedTick >= maxDelay) {
+                return queue;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Run a job, keeping one failure from stopping the rest
+     */
+    private void run(Job job) {
+        if (!job.player.isOnline()) {
+            return;
+        }
+        try {
+            job.action.accept(job.player);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Could not deliver reward to " + job.player.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run a player's queued jobs now (quit)
+     */
+    public void flush(Player player) {
+        if (pending == 0) {
+            return;
+        }
+        for (ArrayDeque<Job> queue : queues) {
+            if (queue == null) {
+                continue;
+            }
+            Iterator<Job> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                Job job = iterator.next();
+                if (job.player.getUniqueId().equals(player.getUniqueId())) {
+                    iterator.remove();
+                    pending--;
+                    run(job);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of queued jobs
+     */
+    public int getPendingCount() {
+        return pending;
+    }
+
+    /**
+     * Cleanup method - delivers everything still queued
+     */
+    public void cleanup() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        for (ArrayDeque<Job> queue : queues) {
+            if (queue == null) {
+                continue;
+            }
+            Job job;
+            while ((job = queue.pollFirst()) != null) {
+                run(job);
+            }
+        }
+        pending = 0;
+    }
+}
@@ -0,0 +1,283 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.utils.MessageUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-player mailbox for rewards that could not be handed over
+ *
+ * Items that do not fit in a player's inventory are appended to
+ * mailbox/<uuid>.mail, one "MATERIAL AMOUNT" line each. A mailbox is only
+ * opened when its owner joins or runs /sleep claim, so startup never
+ * scans the folder. All file access runs in order on one daemon thread.
+ *
+ * A claim first renames the mailbox to <uuid>.claiming and only deletes
+ * it once the items were handed over and any leftovers written back, so
+ * a shutdown or crash in between delivers the claim again on the next
+ * join rather than losing it.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class RewardMailbox {
+
+    private static final long JOIN_DELIVERY_DELAY_TICKS = 40L;
+
+    private final EasySleep plugin;
+    private final File folder;
+    private final ExecutorService io;
+
+    // Players whose claim is being delivered; only touched on the mailbox thread
+    private final Set<UUID> claiming;
+
+    public RewardMailbox(EasySleep plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "mailbox");
+        this.claiming = new HashSet<>();
+        this.io = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EasySleep-Mailbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Give an item, keeping whatever does not fit for later
+     */
+    public void give(Player player, ItemStack item) {
+        Map<Integer, ItemStack> leftovers = player.getInventory().addItem(item);
+        if (!leftovers.isEmpty()) {
+            store(player.getUniqueId(), leftovers.values());
+            MessageUtils.sendMessage(player, plugin.getRewardsManager().getRewardPlan().getMailboxStoredMessage().render());
+        }
+    }
+
+    /**
+     * Append items to a player's mailbox
+     */
+    public void store(UUID uuid, Collection<ItemStack> items) {
+        byte[] data = encode(items);
+        if (data.length == 0) {
+            return;
+        }
+        submit(() -> append(uuid, data), "Could not store mailbox rewards for " + uuid);
+    }
+
+    /**
+     * Encode items as mailbox lines
+     */
+    private byte[] encode(Collection<ItemStack> items) {
+        StringBuilder lines = new StringBuilder();
+        for (ItemStack item : items) {
+            if (item != null && item.getAmount() > 0) {
+                lines.append(item.getType().name()).append(' ').append(item.getAmount()).append('\n');
+            }
+        }
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Append encoded lines to a player's mailbox (mailbox thread)
+     */
+    private void append(UUID uuid, byte[] data) throws IOException {
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create directory " + folder);
+        }
+        try (OutputStream out = new FileOutputStream(getFile(uuid), true)) {
+            out.write(data);
+            out.flush();
+        }
+    }
+
+    /**
+     * Deliver waiting rewards shortly after a player joins
+     */
+    public void onJoin(Player player) {
+        UUID uuid = player.getUniqueId();
+        submit(() -> {
+            // A leftover .claiming file is an interrupted claim
+            boolean waiting = getFile(uuid).exists() || getClaimFile(uuid).exists();
+            if (waiting && plugin.isEnabled()) {
+                Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                    if (player.isOnline()) {
+                        claim(player);
+                    }
+                }, JOIN_DELIVERY_DELAY_TICKS);
+            }
+        }, "Could not check mailbox of " + uuid);
+    }
+
+    /**
+     * Move waiting rewards into a player's inventory (/sleep claim)
+     */
+    public void claim(Player player) {
+        UUID uuid = player.getUniqueId();
+        submit(() -> {
+            if (claiming.contains(uuid)) {
+                return;
+            }
+
+            // Take the mailbox as a whole, adding it to any interrupted claim
+            File file = getFile(uuid);
+            File claimFile = getClaimFile(uuid);
+            if (file.exists()) {
+                if (claimFile.exists()) {
+                    Files.write(claimFile.toPath(), Files.readAllBytes(file.toPath()), StandardOpenOption.APPEND);
+                    Files.delete(file.toPath());
+                } else {
+                    try {
+                        Files.move(file.toPath(), claimFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(file.toPath(), claimFile.toPath());
+                    }
+                }
+            }
+
+            List<ItemStack> items = claimFile.exists() ? read(claimFile) : new ArrayList<>();
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            claiming.add(uuid);
+            try {
+                Bukkit.getScheduler().runTask(plugin, () -> deliver(player, items));
+            } catch (RuntimeException e) {
+                // Disabled meanwhile; the .claiming file is picked up on the next join
+                claiming.remove(uuid);
+            }
+        }, "Could not open mailbox of " + uuid);
+    }
+
+    /**
+     * Hand claimed items to the player (main thread)
+     */
+    private void deliver(Player player, List<ItemStack> items) {
+        UUID uuid = player.getUniqueId();
+        RewardPlan plan = plugin.getRewardsManager().getRewardPlan();
+        List<ItemStack> leftovers = new ArrayList<>();
+        if (!player.isOnline()) {
+            leftovers.addAll(items);
+        } else if (items.isEmpty()) {
+            MessageUtils.sendMessage(player, plan.getMailboxEmptyMessage().render());
+        } else {
+            int delivered = 0;
+            for (ItemStack item : items) {
+                Collection<ItemStack> left = player.getInventory().addItem(item).values();
+                leftovers.addAll(left);
+                if (left.isEmpty()) {
+                    delivered++;
+                }
+            }
+
+            if (delivered > 0) {
+                MessageUtils.sendMessage(player, plan.getMailboxClaimedMessage().render("%count%", String.valueOf(delivered)));
+            }
+            if (!leftovers.isEmpty()) {
+                MessageUtils.sendMessage(player, plan.getMailboxLeftoverMessage().render());
+            }
+        }
+
+        // Write leftovers back before the claim file goes away
+        byte[] data = encode(leftovers);
+        submit(() -> {
+            try {
+                if (data.length > 0) {
+                    append(uuid, data);
+                }
+                Files.deleteIfExists(getClaimFile(uuid).toPath());
+            } finally {
+                claiming.remove(uuid);
+            }
+        }, "Could not finish mailbox claim of " + uuid);
+    }
+
+    /**
+     * Parse a mailbox file, skipping unknown materials
+     */
+    private List<ItemStack> read(File file) throws IOException {
+        List<ItemStack> items = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            String[] parts = line.trim().split(" ");
+            if (parts.length != 2) {
+                continue;
+            }
+            try {
+                Material material = Material.valueOf(parts[0]);
+                int amount = Integer.parseInt(parts[1]);
+                if (amount > 0) {
+                    items.add(new ItemStack(material, amount));
+                }
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Skipping invalid mailbox entry in " + file.getName() + ": " + line);
+            }
+        }
+        return items;
+    }
+
+    private File getFile(UUID uuid) {
+        return new File(folder, uuid + ".mail");
+    }
+
+    private File getClaimFile(UUID uuid) {
+        return new File(folder, uuid + ".claiming");
+    }
+
+    /**
+     * File work that may fail
+     */
+    private interface MailboxTask {
+        void run() throws IOException;
+    }
+
+    private void submit(MailboxTask task, String failure) {
+        try {
+            io.execute(() -> {
+                try {
+                    task.run();
+                } catch (IOException e) {
+                    plugin.getLogger().warning(failure + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning(failure + ": mailbox is shut down");
+        }
+    }
+
+    /**
+     * Cleanup method - finishes pending writes
+     */
+    public void cleanup() {
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Mailbox writes did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
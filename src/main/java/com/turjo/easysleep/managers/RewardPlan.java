@@ -0,0 +1,255 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.utils.MessageTemplate;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Immutable, precompiled reward definitions
+ *
+ * Built once when the config is loaded or reloaded. Item and effect
+ * entries are parsed into templates up front and invalid entries are
+ * logged once here, so giving rewards only clones item templates.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public final class RewardPlan {
+
+    /**
+     * A reward item with its display label
+     */
+    public static final class ItemReward {
+        private final ItemStack template;
+        private final String label;
+
+        ItemReward(ItemStack template) {
+            this.template = template;
+            this.label = template.getAmount() + "x " + template.getType().name().toLowerCase().replace("_", " ");
+        }
+
+        /**
+         * Get a fresh copy of the item (inventories may change the stack they are given)
+         */
+        public ItemStack createItem() {
+            return template.clone();
+        }
+
+        /**
+         * Get the display label, e.g. "2x cooked beef"
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * A reward effect with its display label
+     */
+    public static final class EffectReward {
+        private final PotionEffect effect;
+        private final String label;
+
+        EffectReward(PotionEffect effect) {
+            this.effect = effect;
+            this.label = effect.getType().getName().toLowerCase().replace("_", " ");
+        }
+
+        public PotionEffect getEffect() {
+            return effect;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final List<ItemReward> sleepItems;
+    private final List<EffectReward> sleepEffects;
+    private final List<EffectReward> morningEffects;
+    private final Map<Integer, List<ItemReward>> streakItems;
+    private final double[] moonMultipliers;
+
+    private final MessageTemplate moneyMessage;
+    private final MessageTemplate xpMessage;
+    private final MessageTemplate itemMessage;
+    private final MessageTemplate effectMessage;
+    private final MessageTemplate milestoneMessage;
+    private final MessageTemplate mailboxStoredMessage;
+    private final MessageTemplate mailboxClaimedMessage;
+    private final MessageTemplate mailboxLeftoverMessage;
+    private final MessageTemplate mailboxEmptyMessage;
+
+    private RewardPlan(FileConfiguration config, Logger logger) {
+        sleepItems = compileItems(config, "rewards.items.sleep-rewards", logger);
+        sleepEffects = compileEffects(config, "rewards.effects.sleep-effects", logger);
+        morningEffects = compileEffects(config, "rewards.effects.morning-effects", logger);
+
+        Map<Integer, List<ItemReward>> streaks = new HashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("rewards.items.streak-rewards");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                try {
+                    streaks.put(Integer.parseInt(key), compileItems(config, "rewards.items.streak-rewards." + key, logger));
+                } catch (NumberFormatException e) {
+                    logger.warning("Invalid streak length in rewards.items.streak-rewards: " + key);
+                }
+            }
+        }
+        streakItems = Collections.unmodifiableMap(streaks);
+
+        MoonPhaseManager.MoonPhase[] phases = MoonPhaseManager.MoonPhase.values();
+        moonMultipliers = new double[phases.length];
+        for (MoonPhaseManager.MoonPhase phase : phases) {
+            moonMultipliers[phase.ordinal()] = config.getDouble("features.moon-phases.bonus-multipliers." + phase.name(), 1.0);
+        }
+
+        moneyMessage = MessageTemplate.compile(config.getString("messages.rewards.money-received",
+            "&a+ $%amount% &7(Sleep reward)"));
+        xpMessage = MessageTemplate.compile(config.getString("messages.rewards.xp-received",
+            "&a+ %amount% XP &7(Sleep reward)"));
+        itemMessage = MessageTemplate.compile(config.getString("messages.rewards.item-received",
+            "&a+ %item% &7(Sleep reward)"));
+        effectMessage = MessageTemplate.compile(config.getString("messages.rewards.effect-received",
+            "&b+ %effect% &7(Sleep bonus)"));
+        milestoneMessage = MessageTemplate.compile(config.getString("messages.rewards.streak-milestone",
+            "&6🏆 &e%days%-day sleep streak! &6Bonus rewards unlocked!"));
+        mailboxStoredMessage = MessageTemplate.compile(config.getString("messages.rewards.mailbox-stored",
+            "&e📬 &fYour inventory is full - rewards were sent to your mailbox. Use &e/sleep claim"));
+        mailboxClaimedMessage = MessageTemplate.compile(config.getString("messages.rewards.mailbox-claimed",
+            "&a📬 &fClaimed &e%count% &fsleep reward(s) from your mailbox."));
+        mailboxLeftoverMessage = MessageTemplate.compile(config.getString("messages.rewards.mailbox-leftover",
+            "&e📬 &fSome rewards did not fit and are still waiting. Free up space and use &e/sleep claim"));
+        mailboxEmptyMessage = MessageTemplate.compile(config.getString("messages.rewards.mailbox-empty",
+            "&7Your sleep reward mailbox is empty."));
+    }
+
+    /**
+     * Compile the reward plan from the current config
+     *
+     * @param config The plugin config
+     * @param logger Where invalid entries are reported
+     * @return The compiled plan
+     */
+    public static RewardPlan compile(FileConfiguration config, Logger logger) {
+        return new RewardPlan(config, logger);
+    }
+
+    /**
+     * Parse item entries: "MATERIAL:AMOUNT" or "MATERIAL:AMOUNT:DATA"
+     */
+    private static List<ItemReward> compileItems(FileConfiguration config, String path, Logger logger) {
+        List<ItemReward> items = new ArrayList<>();
+        for (String itemString : config.getStringList(path)) {
+            try {
+                String[] parts = itemString.split(":");
+                Material material = Material.valueOf(parts[0].trim().toUpperCase());
+                int amount = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+                if (amount <= 0 || !material.isItem()) {
+                    throw new IllegalArgumentException();
+                }
+                items.add(new ItemReward(new ItemStack(material, amount)));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid item format in " + path + ": " + itemString);
+            }
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Parse effect entries: "EFFECT_NAME:DURATION_SECONDS:AMPLIFIER"
+     */
+    private static List<EffectReward> compileEffects(FileConfiguration config, String path, Logger logger) {
+        List<EffectReward> effects = new ArrayList<>();
+        for (String effectString : config.getStringList(path)) {
+            try {
+                String[] parts = effectString.split(":");
+                PotionEffectType effectType = PotionEffectType.getByName(parts[0].trim().toUpperCase());
+                int duration = parts.length > 1 ? Integer.parseInt(parts[1].trim()) * 20 : 600; // Convert to ticks
+                int amplifier = parts.length > 2 ? Integer.parseInt(parts[2].trim()) : 0;
+                if (effectType == null || duration <= 0 || amplifier < 0) {
+                    throw new IllegalArgumentException();
+                }
+                effects.add(new EffectReward(new PotionEffect(effectType, duration, amplifier)));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid effect format in " + path + ": " + effectString);
+            }
+        }
+        return Collections.unmodifiableList(effects);
+    }
+
+    public List<ItemReward> getSleepItems() {
+        return sleepItems;
+    }
+
+    public List<EffectReward> getSleepEffects() {
+        return sleepEffects;
+    }
+
+    public List<EffectReward> getMorningEffects() {
+        return morningEffects;
+    }
+
+    /**
+     * Get the milestone items for a streak length
+     *
+     * @return The items, or null if the streak is not a milestone
+     */
+    public List<ItemReward> getStreakItems(int streak) {
+        return streakItems.get(streak);
+    }
+
+    /**
+     * Get the reward multiplier for a moon phase
+     */
+    public double getMoonMultiplier(MoonPhaseManager.MoonPhase phase) {
+        return moonMultipliers[phase.ordinal()];
+    }
+
+    public MessageTemplate getMoneyMessage() {
+        return moneyMessage;
+    }
+
+    public MessageTemplate getXpMessage() {
+        return xpMessage;
+    }
+
+    public MessageTemplate getItemMessage() {
+        return itemMessage;
+    }
+
+    public MessageTemplate getEffectMessage() {
+        return effectMessage;
+    }
+
+    public MessageTemplate getMilestoneMessage() {
+        return milestoneMessage;
+    }
+
+    public MessageTemplate getMailboxStoredMessage() {
+        return mailboxStoredMessage;
+    }
+
+    public MessageTemplate getMailboxClaimedMessage() {
+        return mailboxClaimedMessage;
+    }
+
+    public MessageTemplate getMailboxLeftoverMessage() {
+        return mailboxLeftoverMessage;
+    }
+
+    public MessageTemplate getMailboxEmptyMessage() {
+        return mailboxEmptyMessage;
+    }
+}
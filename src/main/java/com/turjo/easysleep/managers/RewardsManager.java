@@ -1,18 +1,20 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.storage.StreakRecord;
 import com.turjo.easysleep.utils.MessageUtils;
 import net.milkbowl.vault.economy.Economy;
-import org.bukkit.Material;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.RegisteredServiceProvider;
-import org.bukkit.potion.PotionEffect;
-import org.bukkit.potion.PotionEffectType;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -20,24 +22,46 @@ import java.util.concurrent.ConcurrentHashMap;
  * Advanced Rewards Management System
  * Handles all sleep-related rewards including money, XP, items, and effects
  * 
+ * Item, effect and multiplier definitions come from a RewardPlan that is
+ * compiled when the config is loaded. Streaks are loaded per player on
+ * join and dropped again on quit, so only online players are kept. A
+ * streak is never saved before its stored value has been merged in.
+ * 
  * @author Turjo
  * @version 1.5.0
  */
 public class RewardsManager {
     
+    // A streak continues if the last reward was at most two days ago
+    private static final long STREAK_WINDOW_MILLIS = 48 * 60 * 60 * 1000L;
+    private static final long LOAD_RETRY_TICKS = 30 * 20L;
+    
     private final EasySleep plugin;
     private final Map<UUID, Integer> playerStreaks;
     private final Map<UUID, Long> lastRewardTime;
+    private final Set<UUID> dirtyStreaks;
+    // Players whose stored streak is not merged yet, with the token of the current load
+    private final Map<UUID, Object> unmergedStreaks;
     private Economy economy;
+    private EconomyTransactionQueue economyQueue;
     private final Map<UUID, Boolean> playerSleepingStatus;
+    private volatile RewardPlan plan;
     
     public RewardsManager(EasySleep plugin) {
         this.plugin = plugin;
         this.playerStreaks = new HashMap<>();
         this.lastRewardTime = new HashMap<>();
+        this.dirtyStreaks = new HashSet<>();
+        this.unmergedStreaks = new HashMap<>();
         this.playerSleepingStatus = new ConcurrentHashMap<>();
+        reload();
         setupEconomy();
-        loadStreakData();
+        
+        // Players already online after a reload
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            loadPlayer(player);
+        }
+        plugin.getStorageManager().registerFlushHook(this::saveStreakData);
     }
     
     /**
@@ -56,9 +80,24 @@ public class RewardsManager {
         }
         
         economy = rsp.getProvider();
+        economyQueue = new EconomyTransactionQueue(plugin, economy);
         plugin.getLogger().info("Economy integration enabled with " + economy.getName());
     }
     
+    /**
+     * Recompile the reward plan from the current config
+     */
+    public void reload() {
+        plan = RewardPlan.compile(plugin.getConfigManager().getConfig(), plugin.getLogger());
+    }
+    
+    /**
+     * Get the compiled reward plan
+     */
+    public RewardPlan getRewardPlan() {
+        return plan;
+    }
+    
     /**
      * Track when player starts sleeping (no rewards yet)
      */
@@ -75,9 +114,12 @@ public class RewardsManager {
     
     /**
      * Give rewards only when night is actually skipped to day
+     * 
+     * Eligibility, streak and multiplier are settled now; the rewards
+     * themselves are handed out through the RewardDistributor.
      */
     public void giveNightSkipRewards(Player player) {
-        if (!plugin.getConfigManager().getConfig().getBoolean("rewards.enabled", true)) {
+        if (!plugin.getConfigManager().getSettings().areRewardsEnabled()) {
             return;
         }
         
@@ -103,24 +145,32 @@ public class RewardsManager {
         
         lastRewardTime.put(uuid, currentTime);
         
-        // Update streak
-        updatePlayerStreak(player);
+        // Update streak against the previous reward, not the one just recorded
+        updatePlayerStreak(player, lastReward, currentTime);
         int streak = getPlayerStreak(player);
         
         // Calculate multipliers
-        double multiplier = calculateMultiplier(player, streak);
+        RewardPlan plan = this.plan;
+        double multiplier = calculateMultiplier(plan, player, streak);
         
+        plugin.getRewardDistributor().submit(player, p -> deliverNightSkipRewards(plan, p, streak, multiplier));
+    }
+    
+    /**
+     * Hand out night skip rewards that were settled earlier
+     */
+    private void deliverNightSkipRewards(RewardPlan plan, Player player, int streak, double multiplier) {
         // Give rewards
-        giveMoneyReward(player, multiplier);
-        giveExperienceReward(player, multiplier);
-        giveItemRewards(player);
-        givePotionEffects(player);
+        giveMoneyReward(plan, player, multiplier);
+        giveExperienceReward(plan, player, multiplier);
+        giveItemRewards(plan, player);
+        givePotionEffects(plan, player);
         
         // Check for streak milestones
-        checkStreakMilestones(player, streak);
+        checkStreakMilestones(plan, player, streak);
         
         // Play reward sound
-        if (plugin.getConfigManager().getConfig().getBoolean("sounds.enabled", true)) {
+        if (plugin.getConfigManager().getSettings().areSoundsEnabled()) {
             player.playSound(player.getLocation(), 
                 org.bukkit.Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.5f, 1.5f);
         }
@@ -129,43 +179,32 @@ public class RewardsManager {
     /**
      * Give money reward
      */
-    private void giveMoneyReward(Player player, double multiplier) {
-        if (economy == null || !plugin.getConfigManager().getConfig().getBoolean("rewards.economy.enabled", true)) {
+    private void giveMoneyReward(RewardPlan plan, Player player, double multiplier) {
+        if (economyQueue == null || !plugin.getConfigManager().getSettings().areEconomyRewardsEnabled()) {
             return;
         }
         
-        double baseAmount = plugin.getConfigManager().getConfig().getDouble("rewards.economy.money-per-sleep", 25.0);
+        double baseAmount = plugin.getConfigManager().getSettings().getMoneyPerSleep();
         double amount = baseAmount * multiplier;
         
-        try {
-            net.milkbowl.vault.economy.EconomyResponse response = economy.depositPlayer(player, amount);
-            
-            if (response.transactionSuccess()) {
-                String message = plugin.getConfigManager().getConfig().getString("messages.rewards.money-received", 
-                    "&a+ $%amount% &7(Sleep reward)");
-                MessageUtils.sendMessage(player, message.replace("%amount%", String.format("%.2f", amount)));
-                
-                if (plugin.getConfigManager().isDebugMode()) {
-                    plugin.getLogger().info("Successfully deposited $" + amount + " to " + player.getName());
-                }
-            } else {
-                plugin.getLogger().warning("Failed to deposit money to " + player.getName() + ": " + response.errorMessage);
+        // Paid in the next batch; tell the player once the economy confirms it
+        economyQueue.deposit(player, amount, paid -> {
+            if (player.isOnline()) {
+                MessageUtils.sendMessage(player, plan.getMoneyMessage().render("%amount%", String.format("%.2f", paid)));
             }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Error depositing money to " + player.getName() + ": " + e.getMessage());
-        }
+        });
     }
     
     /**
      * Give experience reward
      */
-    private void giveExperienceReward(Player player, double multiplier) {
-        if (!plugin.getConfigManager().getConfig().getBoolean("rewards.experience.enabled", true)) {
+    private void giveExperienceReward(RewardPlan plan, Player player, double multiplier) {
+        if (!plugin.getConfigManager().getSettings().areExperienceRewardsEnabled()) {
             return;
         }
         
-        int baseXP = plugin.getConfigManager().getConfig().getInt("rewards.experience.xp-per-sleep", 100);
-        int levels = plugin.getConfigManager().getConfig().getInt("rewards.experience.levels-per-sleep", 0);
+        int baseXP = plugin.getConfigManager().getSettings().getXpPerSleep();
+        int levels = plugin.getConfigManager().getSettings().getLevelsPerSleep();
         
         int xpAmount = (int) (baseXP * multiplier);
         
@@ -174,89 +213,77 @@ public class RewardsManager {
             player.giveExpLevels(levels);
         }
         
-        String message = plugin.getConfigManager().getConfig().getString("messages.rewards.xp-received", 
-            "&a+ %amount% XP &7(Sleep reward)");
-        MessageUtils.sendMessage(player, message.replace("%amount%", String.valueOf(xpAmount)));
+        MessageUtils.sendMessage(player, plan.getXpMessage().render("%amount%", String.valueOf(xpAmount)));
     }
     
     /**
      * Give item rewards
      */
-    private void giveItemRewards(Player player) {
-        if (!plugin.getConfigManager().getConfig().getBoolean("rewards.items.enabled", true)) {
+    private void giveItemRewards(RewardPlan plan, Player player) {
+        if (!plugin.getConfigManager().getSettings().areItemRewardsEnabled()) {
             return;
         }
         
-        List<String> itemList = plugin.getConfigManager().getConfig().getStringList("rewards.items.sleep-rewards");
-        
-        for (String itemString : itemList) {
-            ItemStack item = parseItemString(itemString);
-            if (item != null) {
-                player.getInventory().addItem(item);
-                
-                String message = plugin.getConfigManager().getConfig().getString("messages.rewards.item-received", 
-                    "&a+ %item% &7(Sleep reward)");
-                MessageUtils.sendMessage(player, message.replace("%item%", 
-                    item.getAmount() + "x " + item.getType().name().toLowerCase().replace("_", " ")));
-            }
+        for (RewardPlan.ItemReward reward : plan.getSleepItems()) {
+            plugin.getRewardMailbox().give(player, reward.createItem());
+            MessageUtils.sendMessage(player, plan.getItemMessage().render("%item%", reward.getLabel()));
         }
     }
     
     /**
      * Give potion effects
      */
-    private void givePotionEffects(Player player) {
-        if (!plugin.getConfigManager().getConfig().getBoolean("rewards.effects.enabled", true)) {
+    private void givePotionEffects(RewardPlan plan, Player player) {
+        if (!plugin.getConfigManager().getSettings().areEffectRewardsEnabled()) {
             return;
         }
         
-        List<String> effectList = plugin.getConfigManager().getConfig().getStringList("rewards.effects.sleep-effects");
-        
-        for (String effectString : effectList) {
-            PotionEffect effect = parseEffectString(effectString);
-            if (effect != null) {
-                player.addPotionEffect(effect);
-                
-                String message = plugin.getConfigManager().getConfig().getString("messages.rewards.effect-received", 
-                    "&b+ %effect% &7(Sleep bonus)");
-                MessageUtils.sendMessage(player, message.replace("%effect%", 
-                    effect.getType().getName().toLowerCase().replace("_", " ")));
-            }
+        for (RewardPlan.EffectReward reward : plan.getSleepEffects()) {
+            player.addPotionEffect(reward.getEffect());
+            MessageUtils.sendMessage(player, plan.getEffectMessage().render("%effect%", reward.getLabel()));
         }
     }
     
     /**
      * Update player sleep streak
+     *
+     * @param previousReward When the player was rewarded before this reward, 0 if never
+     * @param currentTime When this reward was given
      */
-    private void updatePlayerStreak(Player player) {
+    private void updatePlayerStreak(Player player, long previousReward, long currentTime) {
         UUID uuid = player.getUniqueId();
-        long currentTime = System.currentTimeMillis();
-        long lastReward = lastRewardTime.getOrDefault(uuid, 0L);
-        
-        // Check if it's been more than 48 hours (2 days)
-        long timeDiff = currentTime - lastReward;
-        long twoDays = 48 * 60 * 60 * 1000L;
-        
-        if (lastReward == 0 || timeDiff <= twoDays) {
-            // Continue or start streak
-            int currentStreak = playerStreaks.getOrDefault(uuid, 0);
-            playerStreaks.put(uuid, currentStreak + 1);
-        } else if (plugin.getConfigManager().getConfig().getBoolean("rewards.streaks.reset-on-miss", false)) {
-            // Reset streak if configured to do so
-            playerStreaks.put(uuid, 1);
+        int currentStreak = playerStreaks.getOrDefault(uuid, 0);
+        playerStreaks.put(uuid, nextStreak(currentStreak, previousReward, currentTime,
+            plugin.getConfigManager().getSettings().isStreakResetOnMiss()));
+        dirtyStreaks.add(uuid);
+    }
+    
+    /**
+     * Step a streak for a new reward
+     *
+     * @param streak The streak before this reward
+     * @param previousReward When the previous reward was given, 0 if never
+     * @param currentTime When this reward was given
+     * @return The streak after this reward
+     */
+    private static int nextStreak(int streak, long previousReward, long currentTime, boolean resetOnMiss) {
+        // Continue or start the streak if the last reward was at most 48 hours (2 days) ago
+        if (previousReward == 0 || currentTime - previousReward <= STREAK_WINDOW_MILLIS) {
+            return streak + 1;
         }
-        saveStreakData();
+        // Reset streak if configured to do so, otherwise keep it as it was
+        return resetOnMiss ? 1 : streak;
     }
     
     /**
      * Calculate reward multiplier based on streak and moon phase
      */
-    private double calculateMultiplier(Player player, int streak) {
+    private double calculateMultiplier(RewardPlan plan, Player player, int streak) {
         double multiplier = 1.0;
         
         // Streak bonus
         if (streak > 1) {
-            double streakBonus = plugin.getConfigManager().getConfig().getDouble("rewards.economy.bonus-multiplier", 1.5);
+            double streakBonus = plugin.getConfigManager().getSettings().getStreakBonusMultiplier();
             multiplier += (streak - 1) * 0.1; // 10% bonus per streak day
             if (multiplier > streakBonus) {
                 multiplier = streakBonus; // Cap the multiplier
@@ -264,13 +291,10 @@ public class RewardsManager {
         }
         
         // Moon phase bonus
-        if (plugin.getConfigManager().getConfig().getBoolean("features.moon-phases.affect-rewards", true)) {
+        if (plugin.getConfigManager().getSettings().doMoonPhasesAffectRewards()) {
             MoonPhaseManager.MoonPhase moonPhase = plugin.getMoonPhaseManager().getCurrentMoonPhase(player.getWorld());
             if (moonPhase != null) {
-                String phaseName = moonPhase.name();
-                double phaseMultiplier = plugin.getConfigManager().getConfig().getDouble(
-                    "features.moon-phases.bonus-multipliers." + phaseName, 1.0);
-                multiplier *= phaseMultiplier;
+                multiplier *= plan.getMoonMultiplier(moonPhase);
             }
         }
         
@@ -280,31 +304,24 @@ public class RewardsManager {
     /**
      * Check for streak milestones and give special rewards
      */
-    private void checkStreakMilestones(Player player, int streak) {
-        if (!plugin.getConfigManager().getConfig().getBoolean("rewards.streaks.milestone-rewards", true)) {
+    private void checkStreakMilestones(RewardPlan plan, Player player, int streak) {
+        if (!plugin.getConfigManager().getSettings().areMilestoneRewardsEnabled()) {
             return;
         }
         
         // Check if this streak is a milestone
-        if (plugin.getConfigManager().getConfig().contains("rewards.items.streak-rewards." + streak)) {
-            List<String> milestoneRewards = plugin.getConfigManager().getConfig().getStringList(
-                "rewards.items.streak-rewards." + streak);
-            
-            for (String itemString : milestoneRewards) {
-                ItemStack item = parseItemString(itemString);
-                if (item != null) {
-                    player.getInventory().addItem(item);
-                }
+        List<RewardPlan.ItemReward> milestoneRewards = plan.getStreakItems(streak);
+        if (milestoneRewards != null) {
+            for (RewardPlan.ItemReward reward : milestoneRewards) {
+                plugin.getRewardMailbox().give(player, reward.createItem());
             }
             
             // Announce milestone
-            if (plugin.getConfigManager().getConfig().getBoolean("rewards.streaks.announce-milestones", true)) {
-                String message = plugin.getConfigManager().getConfig().getString("messages.rewards.streak-milestone", 
-                    "&6🏆 &e%days%-day sleep streak! &6Bonus rewards unlocked!");
-                MessageUtils.sendMessage(player, message.replace("%days%", String.valueOf(streak)));
+            if (plugin.getConfigManager().getSettings().areMilestonesAnnounced()) {
+                MessageUtils.sendMessage(player, plan.getMilestoneMessage().render("%days%", String.valueOf(streak)));
                 
                 // Special effects for milestones
-                player.getWorld().spawnParticle(org.bukkit.Particle.TOTEM, 
+                plugin.getParticleManager().spawn(ParticleManager.Priority.HIGH, org.bukkit.Particle.TOTEM, 
                     player.getLocation().add(0, 1, 0), 10, 0.5, 0.5, 0.5, 0.1);
                 player.playSound(player.getLocation(), org.bukkit.Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
             }
@@ -312,76 +329,167 @@ public class RewardsManager {
     }
     
     /**
-     * Parse item string format: "MATERIAL:AMOUNT" or "MATERIAL:AMOUNT:DATA"
+     * Get player's current sleep streak
      */
-    private ItemStack parseItemString(String itemString) {
-        try {
-            String[] parts = itemString.split(":");
-            Material material = Material.valueOf(parts[0].toUpperCase());
-            int amount = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
-            
-            return new ItemStack(material, amount);
-        } catch (Exception e) {
-            plugin.getLogger().warning("Invalid item format: " + itemString);
-            return null;
+    public int getPlayerStreak(Player player) {
+        return playerStreaks.getOrDefault(player.getUniqueId(), 0);
+    }
+    
+    /**
+     * Reset player's sleep streak
+     */
+    public void resetPlayerStreak(Player player) {
+        playerStreaks.put(player.getUniqueId(), 0);
+        dirtyStreaks.add(player.getUniqueId());
+    }
+    
+    /**
+     * Load a joining player's streak from the storage backend
+     */
+    public void loadPlayer(Player player) {
+        UUID uuid = player.getUniqueId();
+        if (playerStreaks.containsKey(uuid) || unmergedStreaks.containsKey(uuid)) {
+            return;
         }
+        
+        Object token = new Object();
+        unmergedStreaks.put(uuid, token);
+        requestStoredStreak(uuid, token);
     }
     
     /**
-     * Parse effect string format: "EFFECT_NAME:DURATION:AMPLIFIER"
+     * Read a stored streak, retrying later if the backend fails
      */
-    private PotionEffect parseEffectString(String effectString) {
-        try {
-            String[] parts = effectString.split(":");
-            PotionEffectType effectType = PotionEffectType.getByName(parts[0].toUpperCase());
-            int duration = parts.length > 1 ? Integer.parseInt(parts[1]) * 20 : 600; // Convert to ticks
-            int amplifier = parts.length > 2 ? Integer.parseInt(parts[2]) : 0;
-            
-            if (effectType != null) {
-                return new PotionEffect(effectType, duration, amplifier);
+    private void requestStoredStreak(UUID uuid, Object token) {
+        plugin.getStorageManager().load("load streak data", store -> store.loadStreak(uuid), stored -> {
+            // Ignore loads for players who already left (or left and came back)
+            if (unmergedStreaks.remove(uuid, token)) {
+                mergeStoredStreak(uuid, stored);
             }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Invalid effect format: " + effectString);
+        }, () -> {
+            // Nothing is saved for this player until the stored streak has been read
+            if (unmergedStreaks.get(uuid) == token) {
+                Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                    if (unmergedStreaks.get(uuid) == token) {
+                        requestStoredStreak(uuid, token);
+                    }
+                }, LOAD_RETRY_TICKS);
+            }
+        });
+    }
+    
+    /**
+     * Merge a stored streak into what was recorded while it was loading (main thread)
+     */
+    private void mergeStoredStreak(UUID uuid, StreakRecord stored) {
+        Long lastReward = lastRewardTime.get(uuid);
+        if (lastReward == null) {
+            if (stored != null) {
+                playerStreaks.put(uuid, stored.getStreak());
+                lastRewardTime.put(uuid, stored.getLastReward());
+            }
+            return;
         }
-        return null;
+        
+        StreakRecord merged = combine(stored, playerStreaks.getOrDefault(uuid, 0), lastReward,
+            plugin.getConfigManager().getSettings().isStreakResetOnMiss());
+        playerStreaks.put(uuid, merged.getStreak());
+        dirtyStreaks.add(uuid);
     }
     
     /**
-     * Get player's current sleep streak
+     * Combine a stored streak with one counted from zero before it was loaded
+     *
+     * @param stored The stored streak, or null if none
+     * @param counted The streak counted since the player joined
+     * @param lastReward When the player was last rewarded since joining
      */
-    public int getPlayerStreak(Player player) {
-        return playerStreaks.getOrDefault(player.getUniqueId(), 0);
+    private static StreakRecord combine(StreakRecord stored, int counted, long lastReward, boolean resetOnMiss) {
+        if (stored == null) {
+            return new StreakRecord(counted, lastReward);
+        }
+        
+        // Redo the first step of the count against the stored streak
+        int first = nextStreak(stored.getStreak(), stored.getLastReward(), lastReward, resetOnMiss);
+        return new StreakRecord(first + Math.max(0, counted - 1), lastReward);
     }
     
     /**
-     * Reset player's sleep streak
+     * Save and forget a leaving player's streak
      */
-    public void resetPlayerStreak(Player player) {
-        playerStreaks.put(player.getUniqueId(), 0);
-        saveStreakData();
+    public void unloadPlayer(Player player) {
+        UUID uuid = player.getUniqueId();
+        if (dirtyStreaks.remove(uuid)) {
+            if (unmergedStreaks.containsKey(uuid)) {
+                saveUnmerged(uuid);
+            } else {
+                StreakRecord record = new StreakRecord(playerStreaks.getOrDefault(uuid, 0), lastRewardTime.getOrDefault(uuid, 0L));
+                plugin.getStorageManager().execute("save streak data",
+                    store -> store.saveStreaks(Collections.singletonMap(uuid, record)));
+            }
+        }
+        unmergedStreaks.remove(uuid);
+        playerStreaks.remove(uuid);
+        lastRewardTime.remove(uuid);
     }
     
     /**
-     * Load streak data from file
+     * Save a streak whose stored value was never merged, merging it on the I/O thread
+     * 
+     * If the stored streak still cannot be read nothing is written, so a
+     * partial count never replaces it.
      */
-    private void loadStreakData() {
-        // Implementation would load from data file
-        // For now, streaks reset on server restart
+    private void saveUnmerged(UUID uuid) {
+        Long lastReward = lastRewardTime.get(uuid);
+        if (lastReward == null) {
+            return;
+        }
+        int counted = playerStreaks.getOrDefault(uuid, 0);
+        boolean resetOnMiss = plugin.getConfigManager().getSettings().isStreakResetOnMiss();
+        
+        plugin.getStorageManager().execute("save streak data", store -> {
+            StreakRecord merged = combine(store.loadStreak(uuid), counted, lastReward, resetOnMiss);
+            store.saveStreaks(Collections.singletonMap(uuid, merged));
+        });
     }
     
     /**
-     * Save streak data to file
+     * Queue changed streaks for saving
      */
     private void saveStreakData() {
-        // Implementation would save to data file
-        // For now, streaks are stored in memory only
+        if (dirtyStreaks.isEmpty()) {
+            return;
+        }
+        
+        Map<UUID, StreakRecord> snapshot = new HashMap<>();
+        Iterator<UUID> iterator = dirtyStreaks.iterator();
+        while (iterator.hasNext()) {
+            UUID uuid = iterator.next();
+            if (!unmergedStreaks.containsKey(uuid)) {
+                // Streaks still loading stay dirty so a partial count never overwrites the stored one
+                snapshot.put(uuid, new StreakRecord(playerStreaks.getOrDefault(uuid, 0), lastRewardTime.getOrDefault(uuid, 0L)));
+                iterator.remove();
+            }
+        }
+        
+        if (!snapshot.isEmpty()) {
+            plugin.getStorageManager().execute("save streak data", store -> store.saveStreaks(snapshot));
+        }
     }
     
     /**
      * Cleanup method
      */
     public void cleanup() {
+        if (economyQueue != null) {
+            economyQueue.cleanup();
+        }
         saveStreakData();
+        for (UUID uuid : dirtyStreaks) {
+            saveUnmerged(uuid);
+        }
+        dirtyStreaks.clear();
+        unmergedStreaks.clear();
         playerStreaks.clear();
         lastRewardTime.clear();
         playerSleepingStatus.clear();
@@ -0,0 +1,50 @@
+package com.turjo.easysleep.managers;
+
+/**
+ * A repeating visual effect driven by the EffectScheduler
+ *
+ * Used like a BukkitRunnable: override run(), call cancel() from inside
+ * it when finished, and start it with schedule() instead of runTaskTimer().
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public abstract class ScheduledEffect implements Runnable {
+
+    long nextRun;
+    long period;
+    long startTick;
+    long lifetime;
+    PerformanceMonitor.Timer timer;
+    private boolean cancelled;
+
+    /**
+     * Schedule this effect to repeat until cancelled
+     */
+    public ScheduledEffect schedule(EffectScheduler scheduler, long delay, long period) {
+        return schedule(scheduler, delay, period, 0L);
+    }
+
+    /**
+     * Schedule this effect, cancelling it automatically after lifetime ticks (0 = no limit)
+     */
+    public ScheduledEffect schedule(EffectScheduler scheduler, long delay, long period, long lifetime) {
+        this.lifetime = lifetime;
+        scheduler.submit(this, delay, period);
+        return this;
+    }
+
+    /**
+     * Stop this effect; it will not run again
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Check if this effect has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
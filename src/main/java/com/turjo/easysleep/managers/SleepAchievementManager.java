@@ -1,33 +1,35 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.storage.AchievementState;
 import com.turjo.easysleep.utils.MessageUtils;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
 
 /**
  * 🏆 SLEEP ACHIEVEMENT MANAGER - EXCLUSIVE ACHIEVEMENT SYSTEM 🏆
  * Revolutionary sleep-based achievement system with unique rewards
  * 
+ * Player data is loaded off-thread when a player joins. Online players
+ * plus a bounded cache of recent ones are kept in memory, and only
+ * players whose data changed are written back. No achievement is
+ * awarded until a player's stored data has been merged in.
+ * 
  * @author Turjo
  * @version 1.5.2
  */
 public class SleepAchievementManager {
     
     private final EasySleep plugin;
-    private final Map<UUID, Set<String>> playerAchievements;
-    private final Map<UUID, Map<String, Integer>> playerProgress;
-    private File achievementFile;
-    private FileConfiguration achievementConfig;
+    private final Map<UUID, AchievementState> onlineData;
+    private final Map<UUID, AchievementState> recentData;
+    private final Set<UUID> dirtyPlayers;
+    private final Set<UUID> loadingPlayers;
     
-    // Exclusive sleep achievements
-    private enum SleepAchievement {
+    // Exclusive sleep achievements - a bitmask over ordinals in memory, stored by name
+    public enum SleepAchievement {
         FIRST_DREAM("First Dream", "Sleep for the first time", 1, "GOLDEN_APPLE:1"),
         DREAM_WALKER("Dream Walker", "Sleep 10 times", 10, "DIAMOND:3"),
         NIGHT_GUARDIAN("Night Guardian", "Sleep 50 times", 50, "NETHERITE_INGOT:1"),
@@ -70,72 +72,111 @@ public class SleepAchievementManager {
     
     public SleepAchievementManager(EasySleep plugin) {
         this.plugin = plugin;
-        this.playerAchievements = new HashMap<>();
-        this.playerProgress = new HashMap<>();
-        setupAchievementFile();
-        loadAchievements();
+        this.onlineData = new HashMap<>();
+        this.dirtyPlayers = new HashSet<>();
+        this.loadingPlayers = new HashSet<>();
+        
+        int cacheSize = Math.max(0, plugin.getConfigManager().getConfig().getInt("technical.database.achievement-cache-size", 500));
+        this.recentData = new LinkedHashMap<UUID, AchievementState>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, AchievementState> eldest) {
+                if (size() <= cacheSize || loadingPlayers.contains(eldest.getKey())) {
+                    return false;
+                }
+                if (dirtyPlayers.remove(eldest.getKey())) {
+                    AchievementState state = eldest.getValue().copy();
+                    plugin.getStorageManager().execute("save achievements",
+                        store -> store.saveAchievements(Collections.singletonMap(eldest.getKey(), state)));
+                }
+                return true;
+            }
+        };
+        
+        // Players already online after a reload
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            loadPlayer(player);
+        }
+        plugin.getStorageManager().registerFlushHook(this::saveAchievements);
     }
     
     /**
-     * Setup achievement data file
+     * Load a joining player's achievements
      */
-    private void setupAchievementFile() {
-        achievementFile = new File(plugin.getDataFolder(), "achievements.yml");
-        if (!achievementFile.exists()) {
-            try {
-                achievementFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().warning("Could not create achievement file: " + e.getMessage());
-            }
+    public void loadPlayer(Player player) {
+        getData(player.getUniqueId());
+    }
+    
+    /**
+     * Move a leaving player's achievements into the recent cache
+     */
+    public void unloadPlayer(Player player) {
+        AchievementState data = onlineData.remove(player.getUniqueId());
+        if (data != null) {
+            recentData.put(player.getUniqueId(), data);
         }
-        achievementConfig = YamlConfiguration.loadConfiguration(achievementFile);
     }
     
     /**
-     * Load player achievements
+     * Get a player's achievement data, starting an async load if it is not cached
      */
-    private void loadAchievements() {
-        for (String uuidString : achievementConfig.getKeys(false)) {
-            try {
-                UUID uuid = UUID.fromString(uuidString);
-                Set<String> achievements = new HashSet<>(achievementConfig.getStringList(uuidString + ".achievements"));
-                playerAchievements.put(uuid, achievements);
-                
-                // Load progress
-                Map<String, Integer> progress = new HashMap<>();
-                if (achievementConfig.contains(uuidString + ".progress")) {
-                    for (String key : achievementConfig.getConfigurationSection(uuidString + ".progress").getKeys(false)) {
-                        progress.put(key, achievementConfig.getInt(uuidString + ".progress." + key));
-                    }
-                }
-                playerProgress.put(uuid, progress);
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().warning("Invalid UUID in achievements file: " + uuidString);
-            }
+    private AchievementState getData(UUID uuid) {
+        AchievementState data = onlineData.get(uuid);
+        if (data != null) {
+            return data;
+        }
+        
+        data = recentData.remove(uuid);
+        if (data != null) {
+            onlineData.put(uuid, data);
+            return data;
         }
+        
+        AchievementState created = new AchievementState();
+        onlineData.put(uuid, created);
+        loadingPlayers.add(uuid);
+        plugin.getStorageManager().load("load achievements", store -> store.loadAchievements(uuid), stored -> {
+            // Merge so anything recorded before the load finished is kept
+            if (stored != null) {
+                created.merge(stored);
+            }
+            loadingPlayers.remove(uuid);
+        }, () -> {
+            // Drop the partial state so it is never saved; the next access loads again
+            if (onlineData.get(uuid) == created) {
+                onlineData.remove(uuid);
+            } else if (recentData.get(uuid) == created) {
+                recentData.remove(uuid);
+            }
+            dirtyPlayers.remove(uuid);
+            loadingPlayers.remove(uuid);
+        });
+        return created;
     }
     
     /**
-     * Save achievements to file
+     * Queue changed achievement data for saving
      */
     private void saveAchievements() {
-        for (Map.Entry<UUID, Set<String>> entry : playerAchievements.entrySet()) {
-            String uuidString = entry.getKey().toString();
-            achievementConfig.set(uuidString + ".achievements", new ArrayList<>(entry.getValue()));
-            
-            // Save progress
-            Map<String, Integer> progress = playerProgress.get(entry.getKey());
-            if (progress != null) {
-                for (Map.Entry<String, Integer> progressEntry : progress.entrySet()) {
-                    achievementConfig.set(uuidString + ".progress." + progressEntry.getKey(), progressEntry.getValue());
-                }
+        if (dirtyPlayers.isEmpty()) {
+            return;
+        }
+        
+        Map<UUID, AchievementState> snapshot = new HashMap<>();
+        Iterator<UUID> iterator = dirtyPlayers.iterator();
+        while (iterator.hasNext()) {
+            UUID uuid = iterator.next();
+            AchievementState data = onlineData.containsKey(uuid) ? onlineData.get(uuid) : recentData.get(uuid);
+            if (data == null) {
+                iterator.remove();
+            } else if (!loadingPlayers.contains(uuid)) {
+                // Data still loading stays dirty so a partial state never overwrites stored progress
+                snapshot.put(uuid, data.copy());
+                iterator.remove();
             }
         }
         
-        try {
-            achievementConfig.save(achievementFile);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Could not save achievements: " + e.getMessage());
+        if (!snapshot.isEmpty()) {
+            plugin.getStorageManager().execute("save achievements", store -> store.saveAchievements(snapshot));
         }
     }
     
@@ -148,17 +189,15 @@ public class SleepAchievementManager {
             return;
         }
         
-        UUID uuid = player.getUniqueId();
-        
         // Update sleep count
-        incrementProgress(uuid, "sleep_count");
+        int sleepCount = incrementProgress(player.getUniqueId(), AchievementState.SLEEP_COUNT);
         
         // Check sleep-based achievements
-        checkAchievement(player, SleepAchievement.FIRST_DREAM, getProgress(uuid, "sleep_count"));
-        checkAchievement(player, SleepAchievement.DREAM_WALKER, getProgress(uuid, "sleep_count"));
-        checkAchievement(player, SleepAchievement.NIGHT_GUARDIAN, getProgress(uuid, "sleep_count"));
-        checkAchievement(player, SleepAchievement.SLEEP_MASTER, getProgress(uuid, "sleep_count"));
-        checkAchievement(player, SleepAchievement.DREAM_ARCHITECT, getProgress(uuid, "sleep_count"));
+        checkAchievement(player, SleepAchievement.FIRST_DREAM, sleepCount);
+        checkAchievement(player, SleepAchievement.DREAM_WALKER, sleepCount);
+        checkAchievement(player, SleepAchievement.NIGHT_GUARDIAN, sleepCount);
+        checkAchievement(player, SleepAchievement.SLEEP_MASTER, sleepCount);
+        checkAchievement(player, SleepAchievement.DREAM_ARCHITECT, sleepCount);
     }
     
     /**
@@ -174,21 +213,19 @@ public class SleepAchievementManager {
      * 🌟 Check ritual achievements
      */
     public void checkRitualAchievements(Player player) {
-        UUID uuid = player.getUniqueId();
-        incrementProgress(uuid, "ritual_count");
+        int ritualCount = incrementProgress(player.getUniqueId(), AchievementState.RITUAL_COUNT);
         
-        checkAchievement(player, SleepAchievement.RITUAL_INITIATE, getProgress(uuid, "ritual_count"));
-        checkAchievement(player, SleepAchievement.RITUAL_MASTER, getProgress(uuid, "ritual_count"));
+        checkAchievement(player, SleepAchievement.RITUAL_INITIATE, ritualCount);
+        checkAchievement(player, SleepAchievement.RITUAL_MASTER, ritualCount);
     }
     
     /**
      * 🌟 Check quantum achievements
      */
     public void checkQuantumAchievements(Player player) {
-        UUID uuid = player.getUniqueId();
-        incrementProgress(uuid, "quantum_count");
+        int quantumCount = incrementProgress(player.getUniqueId(), AchievementState.QUANTUM_COUNT);
         
-        checkAchievement(player, SleepAchievement.QUANTUM_EXPLORER, getProgress(uuid, "quantum_count"));
+        checkAchievement(player, SleepAchievement.QUANTUM_EXPLORER, quantumCount);
     }
     
     /**
@@ -196,63 +233,53 @@ public class SleepAchievementManager {
      */
     public void checkDimensionalAchievements(Player player) {
         UUID uuid = player.getUniqueId();
-        String worldType = player.getWorld().getEnvironment().name();
-        
-        Set<String> dimensions = getStringSetProgress(uuid, "dimensions_slept");
-        dimensions.add(worldType);
-        setStringSetProgress(uuid, "dimensions_slept", dimensions);
+        int dimensions = getData(uuid).addDimension(player.getWorld().getEnvironment().ordinal());
+        dirtyPlayers.add(uuid);
         
-        checkAchievement(player, SleepAchievement.DIMENSIONAL_TRAVELER, dimensions.size());
+        checkAchievement(player, SleepAchievement.DIMENSIONAL_TRAVELER, dimensions);
     }
     
     /**
      * 🌟 Check moon phase achievements
      */
-    public void checkMoonPhaseAchievements(Player player, String moonPhase) {
+    public void checkMoonPhaseAchievements(Player player, MoonPhaseManager.MoonPhase moonPhase) {
         UUID uuid = player.getUniqueId();
         
         // Track moon phases experienced
-        Set<String> phases = getStringSetProgress(uuid, "moon_phases");
-        phases.add(moonPhase);
-        setStringSetProgress(uuid, "moon_phases", phases);
+        int phases = getData(uuid).addMoonPhase(moonPhase.ordinal());
+        dirtyPlayers.add(uuid);
         
-        checkAchievement(player, SleepAchievement.MOON_BLESSED, phases.size());
+        checkAchievement(player, SleepAchievement.MOON_BLESSED, phases);
         
         // Track full moon sleeps
-        if ("FULL_MOON".equals(moonPhase)) {
-            incrementProgress(uuid, "full_moon_sleeps");
-            checkAchievement(player, SleepAchievement.LUNAR_CHAMPION, getProgress(uuid, "full_moon_sleeps"));
+        if (moonPhase == MoonPhaseManager.MoonPhase.FULL_MOON) {
+            int fullMoons = incrementProgress(uuid, AchievementState.FULL_MOON_SLEEPS);
+            checkAchievement(player, SleepAchievement.LUNAR_CHAMPION, fullMoons);
         }
     }
     
     /**
      * 🌟 Check dream type achievements
      */
-    public void checkDreamTypeAchievements(Player player, String dreamType) {
+    public void checkDreamTypeAchievements(Player player, DreamSequenceManager.DreamType dreamType) {
         UUID uuid = player.getUniqueId();
+        int dreamTypes = getData(uuid).addDreamType(dreamType.ordinal());
+        dirtyPlayers.add(uuid);
         
-        Set<String> dreamTypes = getStringSetProgress(uuid, "dream_types");
-        dreamTypes.add(dreamType);
-        setStringSetProgress(uuid, "dream_types", dreamTypes);
-        
-        checkAchievement(player, SleepAchievement.DREAM_COLLECTOR, dreamTypes.size());
+        checkAchievement(player, SleepAchievement.DREAM_COLLECTOR, dreamTypes);
     }
     
     /**
      * Check if player has earned an achievement
      */
     private void checkAchievement(Player player, SleepAchievement achievement, int currentProgress) {
-        UUID uuid = player.getUniqueId();
-        String achievementName = achievement.name();
-        
-        // Check if already earned
-        Set<String> earned = playerAchievements.getOrDefault(uuid, new HashSet<>());
-        if (earned.contains(achievementName)) {
+        // Earned achievements are unknown until the load finishes; the next check catches up
+        if (loadingPlayers.contains(player.getUniqueId())) {
             return;
         }
         
-        // Check if requirement met
-        if (currentProgress >= achievement.getRequirement()) {
+        // Check requirement first, then if already earned
+        if (currentProgress >= achievement.getRequirement() && !getData(player.getUniqueId()).hasEarned(achievement.ordinal())) {
             awardAchievement(player, achievement);
         }
     }
@@ -264,12 +291,12 @@ public class SleepAchievementManager {
         UUID uuid = player.getUniqueId();
         
         // Add to earned achievements
-        Set<String> earned = playerAchievements.getOrDefault(uuid, new HashSet<>());
-        earned.add(achievement.name());
-        playerAchievements.put(uuid, earned);
+        AchievementState state = getData(uuid);
+        state.earn(achievement.ordinal());
+        dirtyPlayers.add(uuid);
         
         // Spectacular achievement announcement
-        if (plugin.getConfigManager().isMessageCategoryEnabled("achievement-messages")) {
+        if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.ACHIEVEMENT_MESSAGES)) {
             MessageUtils.sendMessage(player, "");
             MessageUtils.sendMessage(player, plugin.getConfigManager().getMessage("decorations.achievement-border"));
             MessageUtils.sendMessage(player, plugin.getConfigManager().getMessage("achievements.unlocked"));
@@ -285,22 +312,22 @@ public class SleepAchievementManager {
         
         // Spectacular effects
         Location loc = player.getLocation().add(0, 2, 0);
-        player.getWorld().spawnParticle(Particle.TOTEM, loc, 20, 1.0, 1.0, 1.0, 0.2);
-        player.getWorld().spawnParticle(Particle.FIREWORKS_SPARK, loc, 15, 1.5, 1.5, 1.5, 0.1);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.HIGH, Particle.TOTEM, loc, 20, 1.0, 1.0, 1.0, 0.2);
+        plugin.getParticleManager().spawn(ParticleManager.Priority.HIGH, Particle.FIREWORKS_SPARK, loc, 15, 1.5, 1.5, 1.5, 0.1);
         
         // Achievement sound
         player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
         player.playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 0.8f, 2.0f);
         
         // Broadcast to world
-        if (plugin.getConfigManager().isMessageCategoryEnabled("achievement-messages")) {
+        if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.ACHIEVEMENT_MESSAGES)) {
             String broadcastMessage = plugin.getConfigManager().getMessage("achievements.broadcast-unlock", 
                 "%player%", player.getName(), "%achievement%", achievement.getName());
             MessageUtils.broadcastToWorld(player.getWorld(), broadcastMessage);
         }
         
         // Check for Sleep Sage achievement (all achievements unlocked)
-        if (earned.size() >= SleepAchievement.values().length - 1) { // -1 because Sleep Sage is the final one
+        if (state.getEarnedCount() >= SleepAchievement.values().length - 1) { // -1 because Sleep Sage is the final one
             checkAchievement(player, SleepAchievement.SLEEP_SAGE, 1);
         }
         
@@ -317,7 +344,7 @@ public class SleepAchievementManager {
             int amount = Integer.parseInt(parts[1]);
             
             org.bukkit.inventory.ItemStack reward = new org.bukkit.inventory.ItemStack(material, amount);
-            player.getInventory().addItem(reward);
+            plugin.getRewardMailbox().give(player, reward);
             
             MessageUtils.sendMessage(player, "&a+ " + amount + "x " + material.name().toLowerCase().replace("_", " ") + " &7(Achievement reward)");
         } catch (Exception e) {
@@ -326,69 +353,48 @@ public class SleepAchievementManager {
     }
     
     /**
-     * Get player's achievement progress
-     */
-    private int getProgress(UUID uuid, String progressType) {
-        return playerProgress.getOrDefault(uuid, new HashMap<>()).getOrDefault(progressType, 0);
-    }
-    
-    /**
-     * Increment player progress
-     */
-    private void incrementProgress(UUID uuid, String progressType) {
-        Map<String, Integer> progress = playerProgress.getOrDefault(uuid, new HashMap<>());
-        progress.put(progressType, progress.getOrDefault(progressType, 0) + 1);
-        playerProgress.put(uuid, progress);
-    }
-    
-    /**
-     * Get string set progress (for tracking multiple items)
-     */
-    private Set<String> getStringSetProgress(UUID uuid, String progressType) {
-        String data = achievementConfig.getString(uuid.toString() + ".string_progress." + progressType, "");
-        Set<String> result = new HashSet<>();
-        if (!data.isEmpty()) {
-            result.addAll(Arrays.asList(data.split(",")));
-        }
-        return result;
-    }
-    
-    /**
-     * Set string set progress
+     * Increment player progress and return the new value
      */
-    private void setStringSetProgress(UUID uuid, String progressType, Set<String> data) {
-        String dataString = String.join(",", data);
-        achievementConfig.set(uuid.toString() + ".string_progress." + progressType, dataString);
+    private int incrementProgress(UUID uuid, int counter) {
+        dirtyPlayers.add(uuid);
+        return getData(uuid).increment(counter);
     }
     
     /**
      * Get player's earned achievements
      */
     public Set<String> getPlayerAchievements(Player player) {
-        return playerAchievements.getOrDefault(player.getUniqueId(), new HashSet<>());
+        AchievementState state = getData(player.getUniqueId());
+        Set<String> earned = new HashSet<>();
+        for (SleepAchievement achievement : SleepAchievement.values()) {
+            if (state.hasEarned(achievement.ordinal())) {
+                earned.add(achievement.name());
+            }
+        }
+        return earned;
     }
     
     /**
      * Get achievement count for player
      */
     public int getAchievementCount(Player player) {
-        return getPlayerAchievements(player).size();
+        return getData(player.getUniqueId()).getEarnedCount();
     }
     
     /**
      * Show player's achievements
      */
     public void showAchievements(Player player) {
-        Set<String> earned = getPlayerAchievements(player);
+        AchievementState state = getData(player.getUniqueId());
         
         MessageUtils.sendMessage(player, "&6╔═══════════════════════════════════════════╗");
         MessageUtils.sendMessage(player, "&6║ &e🏆 &f&lYOUR SLEEP ACHIEVEMENTS &e🏆 &6║");
         MessageUtils.sendMessage(player, "&6╠═══════════════════════════════════════════╣");
-        MessageUtils.sendMessage(player, "&6║ &fProgress: &e" + earned.size() + "&7/&e" + SleepAchievement.values().length + " &funlocked &6║");
+        MessageUtils.sendMessage(player, "&6║ &fProgress: &e" + state.getEarnedCount() + "&7/&e" + SleepAchievement.values().length + " &funlocked &6║");
         MessageUtils.sendMessage(player, "&6╠═══════════════════════════════════════════╣");
         
         for (SleepAchievement achievement : SleepAchievement.values()) {
-            String status = earned.contains(achievement.name()) ? "&a✓" : "&c✗";
+            String status = state.hasEarned(achievement.ordinal()) ? "&a✓" : "&c✗";
             String name = achievement.getName();
             MessageUtils.sendMessage(player, "&6║ " + status + " &f" + String.format("%-35s", name) + " &6║");
         }
@@ -1,10 +1,10 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.utils.BroadcastBatch;
 import com.turjo.easysleep.utils.MessageUtils;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
 
@@ -15,10 +15,11 @@ import java.util.*;
  * @author Turjo
  * @version 1.4.1
  */
-public class SleepRitualManager {
+public class SleepRitualManager implements WorldSlotListener {
     
     private final EasySleep plugin;
-    private final Map<String, SleepRitual> activeRituals;
+    private SleepRitual[] activeRituals; // Indexed by WorldRegistry slot
+    private int activeRitualCount;
     private final Random random;
     
     // Ritual types with unique collective effects
@@ -29,8 +30,30 @@ public class SleepRitualManager {
     
     public SleepRitualManager(EasySleep plugin) {
         this.plugin = plugin;
-        this.activeRituals = new HashMap<>();
+        this.activeRituals = new SleepRitual[0];
         this.random = new Random();
+        plugin.getWorldRegistry().subscribe(this);
+    }
+    
+    /**
+     * Get the active ritual of a world, or null
+     */
+    private SleepRitual getRitual(World world) {
+        int slot = plugin.getWorldRegistry().getSlot(world);
+        return slot < activeRituals.length ? activeRituals[slot] : null;
+    }
+    
+    /**
+     * Set or clear the active ritual of a world
+     * @return the ritual it replaced, or null
+     */
+    private SleepRitual setRitual(World world, SleepRitual ritual) {
+        int slot = plugin.getWorldRegistry().getSlot(world);
+        activeRituals = WorldRegistry.fit(activeRituals, slot);
+        SleepRitual previous = activeRituals[slot];
+        activeRituals[slot] = ritual;
+        activeRitualCount += (ritual != null ? 1 : 0) - (previous != null ? 1 : 0);
+        return previous;
     }
     
     /**
@@ -41,20 +64,15 @@ public class SleepRitualManager {
             return;
         }
         
-        List<Player> sleepingPlayers = new ArrayList<>();
-        for (Player player : world.getPlayers()) {
-            if (player.isSleeping()) {
-                sleepingPlayers.add(player);
-            }
-        }
+        List<Player> sleepingPlayers = new ArrayList<>(plugin.getSleepStateIndex().getSleepers(world));
         
-        String worldName = world.getName();
+        boolean active = getRitual(world) != null;
         
         // Trigger ritual based on sleeping player count
-        if (sleepingPlayers.size() >= 2 && !activeRituals.containsKey(worldName)) {
+        if (sleepingPlayers.size() >= 2 && !active) {
             RitualType ritualType = determineRitualType(sleepingPlayers.size());
             startSleepRitual(world, sleepingPlayers, ritualType);
-        } else if (sleepingPlayers.size() < 2 && activeRituals.containsKey(worldName)) {
+        } else if (sleepingPlayers.size() < 2 && active) {
             endSleepRitual(world);
         }
     }
@@ -75,22 +93,23 @@ public class SleepRitualManager {
      * 🌟 Start exclusive sleep ritual
      */
     private void startSleepRitual(World world, List<Player> participants, RitualType ritualType) {
-        String worldName = world.getName();
         SleepRitual ritual = new SleepRitual(ritualType, participants, System.currentTimeMillis());
-        activeRituals.put(worldName, ritual);
+        setRitual(world, ritual);
         
         // Calculate ritual center point
         Location center = calculateRitualCenter(participants);
         
         // Announce ritual activation
-        MessageUtils.broadcastToWorld(world, "");
-        MessageUtils.broadcastToWorld(world, "&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-        MessageUtils.broadcastToWorld(world, "&5🔮 &f&lSLEEP RITUAL &5&lACTIVATED &5🔮");
-        MessageUtils.broadcastToWorld(world, "&7✨ &fRitual Type: &d" + getRitualName(ritualType));
-        MessageUtils.broadcastToWorld(world, "&7👥 &fParticipants: &e" + participants.size() + " &7dreamers");
-        MessageUtils.broadcastToWorld(world, "&7🌟 &fCollective dream energy &bconverging&f...");
-        MessageUtils.broadcastToWorld(world, "&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-        MessageUtils.broadcastToWorld(world, "");
+        BroadcastBatch.toWorld(world)
+            .line("")
+            .line("&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━")
+            .line("&5🔮 &f&lSLEEP RITUAL &5&lACTIVATED &5🔮")
+            .line("&7✨ &fRitual Type: &d" + getRitualName(ritualType))
+            .line("&7👥 &fParticipants: &e" + participants.size() + " &7dreamers")
+            .line("&7🌟 &fCollective dream energy &bconverging&f...")
+            .line("&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━")
+            .line("")
+            .send();
         
         // Start ritual sequence
         startRitualSequence(world, ritual, center);
@@ -128,13 +147,13 @@ public class SleepRitualManager {
      * 🌟 Start ritual sequence
      */
     private void startRitualSequence(World world, SleepRitual ritual, Location center) {
-        new BukkitRunnable() {
+        new ScheduledEffect() {
             int ticks = 0;
             int phase = 0;
             
             @Override
             public void run() {
-                if (!activeRituals.containsKey(world.getName())) {
+                if (getRitual(world) != ritual) {
                     cancel();
                     return;
                 }
@@ -159,7 +178,7 @@ public class SleepRitualManager {
                 
                 ticks++;
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 0L, 1L);
     }
     
     /**
@@ -181,29 +200,29 @@ public class SleepRitualManager {
             // Ritual-specific particles
             switch (ritual.ritualType) {
                 case HARMONY_CIRCLE:
-                    world.spawnParticle(Particle.HEART, ritualLoc, 1, 0.1, 0.1, 0.1, 0.01);
+                    plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.HEART, ritualLoc, 1, 0.1, 0.1, 0.1, 0.01);
                     break;
                 case DREAM_CONVERGENCE:
-                    world.spawnParticle(Particle.SOUL_FIRE_FLAME, ritualLoc, 1, 0.1, 0.1, 0.1, 0.01);
+                    plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.SOUL_FIRE_FLAME, ritualLoc, 1, 0.1, 0.1, 0.1, 0.01);
                     break;
                 case ASTRAL_PROJECTION:
-                    world.spawnParticle(Particle.END_ROD, ritualLoc, 1, 0.1, 0.1, 0.1, 0.02);
+                    plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.END_ROD, ritualLoc, 1, 0.1, 0.1, 0.1, 0.02);
                     break;
                 case TEMPORAL_SYNC:
-                    world.spawnParticle(Particle.PORTAL, ritualLoc, 2, 0.1, 0.1, 0.1, 0.03);
+                    plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.PORTAL, ritualLoc, 2, 0.1, 0.1, 0.1, 0.03);
                     break;
                 case SOUL_BINDING:
-                    world.spawnParticle(Particle.SOUL, ritualLoc, 1, 0.1, 0.1, 0.1, 0.01);
+                    plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.SOUL, ritualLoc, 1, 0.1, 0.1, 0.1, 0.01);
                     break;
                 case COSMIC_ALIGNMENT:
-                    world.spawnParticle(Particle.TOTEM, ritualLoc, 1, 0.1, 0.1, 0.1, 0.02);
+                    plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.TOTEM, ritualLoc, 1, 0.1, 0.1, 0.1, 0.02);
                     break;
             }
         }
         
         // Central ritual energy
         if (ticks % 20 == 0) {
-            world.spawnParticle(Particle.ENCHANTMENT_TABLE, center, 5, 0.5, 0.5, 0.5, 0.1);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.ENCHANTMENT_TABLE, center, 5, 0.5, 0.5, 0.5, 0.1);
         }
     }
     
@@ -227,7 +246,7 @@ public class SleepRitualManager {
                     (center.getZ() - playerLoc.getZ()) * progress
                 );
                 
-                world.spawnParticle(Particle.ENCHANTMENT_TABLE, streamLoc, 1, 0.05, 0.05, 0.05, 0.02);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.ENCHANTMENT_TABLE, streamLoc, 1, 0.05, 0.05, 0.05, 0.02);
             }
         }
         
@@ -251,7 +270,7 @@ public class SleepRitualManager {
                 double y = Math.sin(ticks * 0.15 + i) * 1.0;
                 
                 Location climaxLoc = center.clone().add(x, y, z);
-                world.spawnParticle(Particle.TOTEM, climaxLoc, 2, 0.2, 0.2, 0.2, 0.05);
+                plugin.getParticleManager().spawn(ParticleManager.Priority.HIGH, Particle.TOTEM, climaxLoc, 2, 0.2, 0.2, 0.2, 0.05);
             }
         }
         
@@ -269,7 +288,7 @@ public class SleepRitualManager {
         // Gentle sustained effects every 2 seconds
         if (ticks % 40 == 0) {
             // Pulsing ritual energy
-            world.spawnParticle(Particle.SOUL_FIRE_FLAME, center, 3, 1.0, 1.0, 1.0, 0.02);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.SOUL_FIRE_FLAME, center, 3, 1.0, 1.0, 1.0, 0.02);
             
             // Soft ritual sound
             world.playSound(center, Sound.BLOCK_BEACON_AMBIENT, 0.1f, 1.8f);
@@ -280,7 +299,7 @@ public class SleepRitualManager {
             for (Player participant : ritual.participants) {
                 if (participant.isOnline() && participant.isSleeping()) {
                     Location playerLoc = participant.getLocation().add(0, 1.5, 0);
-                    world.spawnParticle(Particle.END_ROD, playerLoc, 1, 0.2, 0.2, 0.2, 0.01);
+                    plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.END_ROD, playerLoc, 1, 0.2, 0.2, 0.2, 0.01);
                 }
             }
         }
@@ -290,7 +309,7 @@ public class SleepRitualManager {
      * 🌟 Start participant effects
      */
     private void startParticipantEffects(Player participant, RitualType ritualType) {
-        new BukkitRunnable() {
+        new ScheduledEffect() {
             int ticks = 0;
             
             @Override
@@ -306,64 +325,65 @@ public class SleepRitualManager {
                 switch (ritualType) {
                     case HARMONY_CIRCLE:
                         if (ticks % 30 == 0) {
-                            participant.getWorld().spawnParticle(Particle.HEART, loc, 1, 0.3, 0.3, 0.3, 0.01);
+                            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.HEART, loc, 1, 0.3, 0.3, 0.3, 0.01);
                         }
                         break;
                     case DREAM_CONVERGENCE:
                         if (ticks % 25 == 0) {
-                            participant.getWorld().spawnParticle(Particle.SOUL_FIRE_FLAME, loc, 2, 0.2, 0.2, 0.2, 0.02);
+                            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.SOUL_FIRE_FLAME, loc, 2, 0.2, 0.2, 0.2, 0.02);
                         }
                         break;
                     case ASTRAL_PROJECTION:
                         if (ticks % 20 == 0) {
-                            participant.getWorld().spawnParticle(Particle.END_ROD, loc, 1, 0.4, 0.4, 0.4, 0.03);
+                            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.END_ROD, loc, 1, 0.4, 0.4, 0.4, 0.03);
                         }
                         break;
                     case TEMPORAL_SYNC:
                         if (ticks % 35 == 0) {
-                            participant.getWorld().spawnParticle(Particle.PORTAL, loc, 3, 0.3, 0.3, 0.3, 0.05);
+                            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.PORTAL, loc, 3, 0.3, 0.3, 0.3, 0.05);
                         }
                         break;
                     case SOUL_BINDING:
                         if (ticks % 40 == 0) {
-                            participant.getWorld().spawnParticle(Particle.SOUL, loc, 2, 0.2, 0.2, 0.2, 0.02);
+                            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.SOUL, loc, 2, 0.2, 0.2, 0.2, 0.02);
                         }
                         break;
                     case COSMIC_ALIGNMENT:
                         if (ticks % 15 == 0) {
-                            participant.getWorld().spawnParticle(Particle.TOTEM, loc, 1, 0.5, 0.5, 0.5, 0.04);
+                            plugin.getParticleManager().spawn(ParticleManager.Priority.NORMAL, Particle.TOTEM, loc, 1, 0.5, 0.5, 0.5, 0.04);
                         }
                         break;
                 }
                 
                 ticks++;
             }
-        }.runTaskTimer(plugin, 20L, 1L);
+        }.schedule(plugin.getEffectScheduler(), 20L, 1L);
     }
     
     /**
      * 🌟 End sleep ritual
      */
     private void endSleepRitual(World world) {
-        String worldName = world.getName();
-        SleepRitual ritual = activeRituals.remove(worldName);
+        SleepRitual ritual = setRitual(world, null);
         
         if (ritual != null) {
             long duration = (System.currentTimeMillis() - ritual.startTime) / 1000;
             
             // Ritual completion message
-            MessageUtils.broadcastToWorld(world, "");
-            MessageUtils.broadcastToWorld(world, "&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-            MessageUtils.broadcastToWorld(world, "&a✓ &f&lSLEEP RITUAL &a&lCOMPLETED &a✓");
-            MessageUtils.broadcastToWorld(world, "&7🌟 &fRitual Type: &d" + getRitualName(ritual.ritualType));
-            MessageUtils.broadcastToWorld(world, "&7⏱ &fDuration: &e" + duration + "s");
-            MessageUtils.broadcastToWorld(world, "&7💫 &fCollective dream energy &adissipating&f...");
-            MessageUtils.broadcastToWorld(world, "&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-            MessageUtils.broadcastToWorld(world, "");
+            BroadcastBatch.toWorld(world)
+                .line("")
+                .line("&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━")
+                .line("&a✓ &f&lSLEEP RITUAL &a&lCOMPLETED &a✓")
+                .line("&7🌟 &fRitual Type: &d" + getRitualName(ritual.ritualType))
+                .line("&7⏱ &fDuration: &e" + duration + "s")
+                .line("&7💫 &fCollective dream energy &adissipating&f...")
+                .line("&8━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━")
+                .line("")
+                .send();
             
             // Completion effects
             Location center = calculateRitualCenter(ritual.participants);
-            world.spawnParticle(Particle.TOTEM, center, 10, 2.0, 2.0, 2.0, 0.2);
+            plugin.getParticleManager().spawn(ParticleManager.Priority.HIGH, Particle.TOTEM, center, 10, 2.0, 2.0, 2.0, 0.2);
             world.playSound(center, Sound.UI_TOAST_CHALLENGE_COMPLETE, 0.5f, 1.5f);
         }
     }
@@ -387,21 +407,34 @@ public class SleepRitualManager {
      * Check if world has active ritual
      */
     public boolean hasActiveRitual(World world) {
-        return activeRituals.containsKey(world.getName());
+        return getRitual(world) != null;
     }
     
     /**
      * Get active ritual count
      */
     public int getActiveRitualCount() {
-        return activeRituals.size();
+        return activeRitualCount;
+    }
+    
+    /**
+     * Drop the ritual of an unloading world
+     */
+    @Override
+    public void onWorldRemoved(World world, int slot) {
+        if (slot < activeRituals.length && activeRituals[slot] != null) {
+            activeRituals[slot] = null;
+            activeRitualCount--;
+        }
     }
     
     /**
      * Cleanup method
      */
     public void cleanup() {
-        activeRituals.clear();
+        plugin.getWorldRegistry().unsubscribe(this);
+        activeRituals = new SleepRitual[0];
+        activeRitualCount = 0;
     }
     
     /**
@@ -0,0 +1,210 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-world sleeping and active player counts
+ *
+ * Kept up to date from bed, AFK, world change, join and quit events so
+ * readers get counts in O(1) instead of scanning world.getPlayers().
+ * AFK players count as neither active nor sleeping. World counts live in
+ * an array indexed by WorldRegistry slot.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class SleepStateIndex implements WorldSlotListener {
+
+    private final EasySleep plugin;
+    private WorldState[] worlds;
+    private final Map<UUID, PlayerState> players;
+
+    /**
+     * Counts for one world
+     */
+    private static class WorldState {
+        int active;
+        int sleeping;
+        final Set<Player> sleepers = new LinkedHashSet<>();
+        final Collection<Player> sleepersView = Collections.unmodifiableSet(sleepers);
+    }
+
+    /**
+     * Tracked state for one player
+     */
+    private static class PlayerState {
+        final Player player;
+        int world;
+        boolean sleeping;
+        boolean afk;
+
+        PlayerState(Player player, int world) {
+            this.player = player;
+            this.world = world;
+        }
+    }
+
+    public SleepStateIndex(EasySleep plugin) {
+        this.plugin = plugin;
+        this.worlds = new WorldState[0];
+        this.players = new HashMap<>();
+        plugin.getWorldRegistry().subscribe(this);
+
+        // Players already online after a reload
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            trackPlayer(player);
+            if (player.isSleeping()) {
+                setSleeping(player, true);
+            }
+        }
+    }
+
+    /**
+     * Start tracking a player (join)
+     */
+    public void trackPlayer(Player player) {
+        if (players.containsKey(player.getUniqueId())) {
+            return;
+        }
+        PlayerState state = new PlayerState(player, plugin.getWorldRegistry().getSlot(player.getWorld()));
+        state.afk = plugin.getAFKManager().isPlayerAFK(player);
+        players.put(player.getUniqueId(), state);
+        apply(state, 1);
+    }
+
+    /**
+     * Stop tracking a player (quit)
+     */
+    public void untrackPlayer(Player player) {
+        PlayerState state = players.remove(player.getUniqueId());
+        if (state != null) {
+            apply(state, -1);
+        }
+    }
+
+    /**
+     * Update a player's sleeping state (bed enter/leave)
+     */
+    public void setSleeping(Player player, boolean sleeping) {
+        PlayerState state = players.get(player.getUniqueId());
+        if (state == null || state.sleeping == sleeping) {
+            return;
+        }
+        apply(state, -1);
+        state.sleeping = sleeping;
+        apply(state, 1);
+    }
+
+    /**
+     * Update a player's AFK state
+     */
+    public void setAFK(Player player, boolean afk) {
+        PlayerState state = players.get(player.getUniqueId());
+        if (state == null || state.afk == afk) {
+            return;
+        }
+        apply(state, -1);
+        state.afk = afk;
+        apply(state, 1);
+    }
+
+    /**
+     * Move a player to their current world (world change)
+     */
+    public void updateWorld(Player player) {
+        PlayerState state = players.get(player.getUniqueId());
+        if (state == null) {
+            return;
+        }
+        apply(state, -1);
+        state.world = plugin.getWorldRegistry().getSlot(player.getWorld());
+        state.sleeping = false;
+        apply(state, 1);
+    }
+
+    /**
+     * Drop counts for an unloaded world
+     */
+    @Override
+    public void onWorldRemoved(World world, int slot) {
+        if (slot < worlds.length) {
+            worlds[slot] = null;
+        }
+    }
+
+    /**
+     * Add or remove a player's contribution to their world's counts
+     */
+    private void apply(PlayerState state, int delta) {
+        if (state.afk) {
+            return;
+        }
+
+        worlds = WorldRegistry.fit(worlds, state.world);
+        WorldState world = worlds[state.world];
+        if (world == null) {
+            world = new WorldState();
+            worlds[state.world] = world;
+        }
+        world.active += delta;
+        if (state.sleeping) {
+            world.sleeping += delta;
+            if (delta > 0) {
+                world.sleepers.add(state.player);
+            } else {
+                world.sleepers.remove(state.player);
+            }
+        }
+    }
+
+    /**
+     * Get a world's counts, or null if nobody was counted there yet
+     */
+    private WorldState getState(World world) {
+        int slot = plugin.getWorldRegistry().getSlot(world);
+        return slot < worlds.length ? worlds[slot] : null;
+    }
+
+    /**
+     * Get count of sleeping players (excluding AFK)
+     */
+    public int getSleepingCount(World world) {
+        WorldState state = getState(world);
+        return state != null ? state.sleeping : 0;
+    }
+
+    /**
+     * Get count of active players (excluding AFK)
+     */
+    public int getActiveCount(World world) {
+        WorldState state = getState(world);
+        return state != null ? state.active : 0;
+    }
+
+    /**
+     * Get sleeping players (excluding AFK) as a read-only view
+     */
+    public Collection<Player> getSleepers(World world) {
+        WorldState state = getState(world);
+        return state != null ? state.sleepersView : Collections.<Player>emptySet();
+    }
+
+    /**
+     * Cleanup method
+     */
+    public void cleanup() {
+        plugin.getWorldRegistry().unsubscribe(this);
+        worlds = new WorldState[0];
+        players.clear();
+    }
+}
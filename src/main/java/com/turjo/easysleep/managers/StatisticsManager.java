@@ -1,126 +1,124 @@
 package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 
-import java.io.File;
-import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Advanced Statistics Tracking System
  * Tracks plugin usage and sleep statistics
- * 
+ *
+ * Counters live in memory and are written behind through the storage
+ * backend on the configured save interval, plus a final flush on disable.
+ *
  * @author Turjo
  * @version 1.4.1
  */
 public class StatisticsManager {
-    
+
     private final EasySleep plugin;
-    private File statsFile;
-    private FileConfiguration statsConfig;
-    
+
     // Statistics counters
-    private long totalSleepEvents = 0;
-    private long totalNightSkips = 0;
-    private long totalDaysTracked = 0;
-    private long totalPlayersServed = 0;
-    
+    private final AtomicLong totalSleepEvents = new AtomicLong();
+    private final AtomicLong totalNightSkips = new AtomicLong();
+    private final AtomicLong totalDaysTracked = new AtomicLong();
+    private final AtomicLong totalPlayersServed = new AtomicLong();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
     public StatisticsManager(EasySleep plugin) {
         this.plugin = plugin;
-        setupStatsFile();
         loadStatistics();
+        plugin.getStorageManager().registerFlushHook(this::flush);
     }
-    
-    /**
-     * Setup statistics file
-     */
-    private void setupStatsFile() {
-        statsFile = new File(plugin.getDataFolder(), "statistics.yml");
-        if (!statsFile.exists()) {
-            try {
-                statsFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().warning("Could not create statistics file: " + e.getMessage());
-            }
-        }
-        statsConfig = YamlConfiguration.loadConfiguration(statsFile);
-    }
-    
+
     /**
-     * Load statistics from file
+     * Load stored counters from the storage backend
      */
     private void loadStatistics() {
-        totalSleepEvents = statsConfig.getLong("total-sleep-events", 0);
-        totalNightSkips = statsConfig.getLong("total-night-skips", 0);
-        totalDaysTracked = statsConfig.getLong("total-days-tracked", 0);
-        totalPlayersServed = statsConfig.getLong("total-players-served", 0);
+        Map<String, Long> stored = plugin.getStorageManager().loadNow("load statistics",
+            store -> store.loadStatistics(), Collections.<String, Long>emptyMap());
+
+        totalSleepEvents.set(stored.getOrDefault("total-sleep-events", 0L));
+        totalNightSkips.set(stored.getOrDefault("total-night-skips", 0L));
+        totalDaysTracked.set(stored.getOrDefault("total-days-tracked", 0L));
+        totalPlayersServed.set(stored.getOrDefault("total-players-served", 0L));
     }
-    
+
     /**
-     * Save statistics to file
+     * Queue a snapshot of the counters for saving if anything changed
      */
-    private void saveStatistics() {
-        statsConfig.set("total-sleep-events", totalSleepEvents);
-        statsConfig.set("total-night-skips", totalNightSkips);
-        statsConfig.set("total-days-tracked", totalDaysTracked);
-        statsConfig.set("total-players-served", totalPlayersServed);
-        statsConfig.set("last-updated", System.currentTimeMillis());
-        
-        try {
-            statsConfig.save(statsFile);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Could not save statistics: " + e.getMessage());
+    public void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
         }
+
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        snapshot.put("total-sleep-events", totalSleepEvents.get());
+        snapshot.put("total-night-skips", totalNightSkips.get());
+        snapshot.put("total-days-tracked", totalDaysTracked.get());
+        snapshot.put("total-players-served", totalPlayersServed.get());
+
+        plugin.getStorageManager().execute("save statistics", store -> store.saveStatistics(snapshot));
     }
-    
+
     /**
      * Record a sleep event
      */
     public void recordSleepEvent() {
-        totalSleepEvents++;
-        saveStatistics();
+        totalSleepEvents.incrementAndGet();
+        dirty.set(true);
     }
-    
+
     /**
      * Record a night skip
      */
     public void recordNightSkip() {
-        totalNightSkips++;
-        saveStatistics();
+        totalNightSkips.incrementAndGet();
+        dirty.set(true);
     }
-    
+
     /**
      * Record a new day
      */
     public void recordNewDay() {
-        totalDaysTracked++;
-        saveStatistics();
+        totalDaysTracked.incrementAndGet();
+        dirty.set(true);
     }
-    
+
     /**
      * Update player count
      */
     public void updatePlayerCount(int currentPlayers) {
-        if (currentPlayers > totalPlayersServed) {
-            totalPlayersServed = currentPlayers;
-            saveStatistics();
+        long previous = totalPlayersServed.getAndAccumulate(currentPlayers, Math::max);
+        if (currentPlayers > previous) {
+            dirty.set(true);
         }
     }
-    
+
     // Getters
-    public long getTotalSleepEvents() { return totalSleepEvents; }
-    public long getTotalNightSkips() { return totalNightSkips; }
-    public long getTotalDaysTracked() { return totalDaysTracked; }
-    public long getTotalPlayersServed() { return totalPlayersServed; }
-    
+    public long getTotalSleepEvents() { return totalSleepEvents.get(); }
+    public long getTotalNightSkips() { return totalNightSkips.get(); }
+    public long getTotalDaysTracked() { return totalDaysTracked.get(); }
+    public long getTotalPlayersServed() { return totalPlayersServed.get(); }
+
     /**
      * Get formatted statistics string
      */
     public String getFormattedStats() {
         return String.format(
             "Sleep Events: %d | Night Skips: %d | Days Tracked: %d | Players Served: %d",
-            totalSleepEvents, totalNightSkips, totalDaysTracked, totalPlayersServed
+            getTotalSleepEvents(), getTotalNightSkips(), getTotalDaysTracked(), getTotalPlayersServed()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Cleanup method - queues the final flush
+     */
+    public void cleanup() {
+        flush();
+    }
+}
@@ -0,0 +1,261 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.storage.PlayerDataStore;
+import com.turjo.easysleep.storage.SqlitePlayerDataStore;
+import com.turjo.easysleep.storage.YamlPlayerDataStore;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Owns the configured storage backend and the single I/O thread
+ * every read and write goes through
+ *
+ * Managers register a flush hook that snapshots their dirty state on
+ * the main thread; the snapshot is then written on the I/O thread.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class StorageManager {
+
+    /**
+     * Write operation run on the I/O thread
+     */
+    @FunctionalInterface
+    public interface StorageTask {
+        void run(PlayerDataStore store) throws IOException;
+    }
+
+    /**
+     * Read operation run on the I/O thread
+     */
+    @FunctionalInterface
+    public interface StorageQuery<T> {
+        T query(PlayerDataStore store) throws IOException;
+    }
+
+    private final EasySleep plugin;
+    private final ExecutorService executor;
+    private final List<Runnable> flushHooks = new ArrayList<>();
+    private final PlayerDataStore store;
+    private BukkitTask flushTask;
+
+    public StorageManager(EasySleep plugin) {
+        this.plugin = plugin;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EasySleep-Storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.store = openStore();
+        startFlushTask();
+    }
+
+    /**
+     * Open the configured backend, falling back to YAML if it fails
+     */
+    private PlayerDataStore openStore() {
+        String type = plugin.getConfigManager().getConfig().getString("technical.database.type", "YAML").toUpperCase(Locale.ROOT);
+
+        if (type.equals("MYSQL") || type.equals("H2")) {
+            plugin.getLogger().warning("Storage type " + type + " is not supported, using SQLITE instead");
+            type = "SQLITE";
+        }
+
+        if (type.equals("SQLITE")) {
+            PlayerDataStore sqlite = new SqlitePlayerDataStore(new File(plugin.getDataFolder(), "data.db"), plugin.getLogger());
+            try {
+                sqlite.open();
+                migrateFromYaml(sqlite);
+                plugin.getLogger().info("Using " + sqlite.getName() + " storage");
+                return sqlite;
+            } catch (IOException e) {
+                sqlite.close();
+                plugin.getLogger().warning("Could not open SQLite storage, falling back to YAML: " + e.getMessage());
+            }
+        } else if (!type.equals("YAML")) {
+            plugin.getLogger().warning("Unknown storage type " + type + ", using YAML");
+        }
+
+        PlayerDataStore yaml = new YamlPlayerDataStore(plugin.getDataFolder(), plugin.getLogger());
+        try {
+            yaml.open();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not open YAML storage: " + e.getMessage());
+        }
+        return yaml;
+    }
+
+    /**
+     * Copy existing YAML data into a freshly created database
+     */
+    private void migrateFromYaml(PlayerDataStore target) throws IOException {
+        if (!target.isEmpty()) {
+            return;
+        }
+
+        PlayerDataStore yaml = new YamlPlayerDataStore(plugin.getDataFolder(), plugin.getLogger());
+        try {
+            yaml.open();
+            if (yaml.isEmpty()) {
+                return;
+            }
+
+            target.saveStatistics(yaml.loadStatistics());
+            target.saveWorldDays(yaml.loadWorldDays());
+            target.saveStreaks(yaml.loadStreaks());
+            target.saveAchievements(yaml.loadAllAchievements());
+            plugin.getLogger().info("Migrated existing YAML data to " + target.getName() + " storage");
+        } finally {
+            yaml.close();
+        }
+    }
+
+    /**
+     * Start the periodic flush task
+     */
+    private void startFlushTask() {
+        long intervalTicks = getSaveIntervalTicks();
+
+        flushTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                flushAll();
+            }
+        }.runTaskTimer(plugin, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Get the save interval in ticks
+     */
+    public long getSaveIntervalTicks() {
+        return Math.max(1L, plugin.getConfigManager().getConfig().getLong("technical.database.save-interval", 300)) * 20L;
+    }
+
+    /**
+     * Register a hook that queues a manager's dirty data for saving
+     */
+    public void registerFlushHook(Runnable hook) {
+        flushHooks.add(hook);
+    }
+
+    /**
+     * Run all flush hooks now
+     */
+    public void flushAll() {
+        for (Runnable hook : flushHooks) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().warning("Could not queue data for saving: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Queue a write on the I/O thread
+     */
+    public void execute(String description, StorageTask task) {
+        Runnable runnable = () -> {
+            try {
+                task.run(store);
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().warning("Could not " + description + ": " + e.getMessage());
+            }
+        };
+
+        try {
+            executor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            // Executor already shut down, write synchronously rather than lose the data
+            runnable.run();
+        }
+    }
+
+    /**
+     * Run a read on the I/O thread and hand the result back on the main thread
+     */
+    public <T> void load(String description, StorageQuery<T> query, Consumer<T> callback) {
+        load(description, query, callback, null);
+    }
+
+    /**
+     * Run a read on the I/O thread and hand the result back on the main thread
+     *
+     * @param onFailure Run on the main thread instead of the callback if the read fails, may be null
+     */
+    public <T> void load(String description, StorageQuery<T> query, Consumer<T> callback, Runnable onFailure) {
+        executor.execute(() -> {
+            T result;
+            try {
+                result = query.query(store);
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().warning("Could not " + description + ": " + e.getMessage());
+                if (onFailure != null && plugin.isEnabled()) {
+                    Bukkit.getScheduler().runTask(plugin, onFailure);
+                }
+                return;
+            }
+
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(result));
+            }
+        });
+    }
+
+    /**
+     * Run a read on the I/O thread and wait for it (startup only)
+     */
+    public <T> T loadNow(String description, StorageQuery<T> query, T fallback) {
+        Future<T> future = executor.submit(() -> query.query(store));
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            plugin.getLogger().warning("Could not " + description + ": " + e.getCause().getMessage());
+        }
+        return fallback;
+    }
+
+    /**
+     * Get the active backend name
+     */
+    public String getBackendName() {
+        return store.getName();
+    }
+
+    /**
+     * Drain pending writes and close the backend
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for pending data saves");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        store.close();
+    }
+}
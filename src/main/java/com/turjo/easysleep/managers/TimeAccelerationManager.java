@@ -0,0 +1,131 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import com.turjo.easysleep.utils.MessageUtils;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+
+/**
+ * Time acceleration while players sleep
+ *
+ * Runs at most one driver per world. It starts with the first sleeper,
+ * stops once nobody is sleeping, and speeds time up in proportion to
+ * the share of active players that are asleep. Drivers are kept by
+ * WorldRegistry slot.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class TimeAccelerationManager implements WorldSlotListener {
+
+    private final EasySleep plugin;
+    private WorldAccelerator[] accelerators;
+
+    public TimeAccelerationManager(EasySleep plugin) {
+        this.plugin = plugin;
+        this.accelerators = new WorldAccelerator[0];
+        plugin.getWorldRegistry().subscribe(this);
+    }
+
+    /**
+     * Start accelerating time in a world if it is not already running
+     */
+    public void startAcceleration(World world) {
+        double acceleration = plugin.getConfigManager().getSettings().getTimeAcceleration();
+        int slot = plugin.getWorldRegistry().getSlot(world);
+        accelerators = WorldRegistry.fit(accelerators, slot);
+        if (acceleration <= 1.0 || accelerators[slot] != null) {
+            return;
+        }
+
+        WorldAccelerator accelerator = new WorldAccelerator(world, slot, acceleration);
+        accelerators[slot] = accelerator;
+        accelerator.runTaskTimer(plugin, 1L, 1L);
+
+        // Broadcast acceleration message
+        if (plugin.getConfigManager().isMessageCategoryEnabled(MessageCategory.TIME_ACCELERATION)) {
+            String accelMessage = plugin.getConfigManager().getMessage("time-acceleration.flowing-faster",
+                "%speed%", String.format("%.1f", acceleration));
+            MessageUtils.broadcastToWorld(world, accelMessage);
+        }
+    }
+
+    /**
+     * Check if time is being accelerated in a world
+     */
+    public boolean isAccelerating(World world) {
+        int slot = plugin.getWorldRegistry().getSlot(world);
+        return slot < accelerators.length && accelerators[slot] != null;
+    }
+
+    /**
+     * Stop the driver of an unloading world
+     */
+    @Override
+    public void onWorldRemoved(World world, int slot) {
+        if (slot < accelerators.length && accelerators[slot] != null) {
+            accelerators[slot].cancel();
+            accelerators[slot] = null;
+        }
+    }
+
+    /**
+     * Per-world acceleration driver
+     */
+    private class WorldAccelerator extends BukkitRunnable {
+
+        private final World world;
+        private final int slot;
+        private final double extraTicksAtFullSleep;
+        private double carry;
+
+        WorldAccelerator(World world, int slot, double acceleration) {
+            this.world = world;
+            this.slot = slot;
+            this.extraTicksAtFullSleep = 20 * (acceleration - 1.0);
+        }
+
+        @Override
+        public void run() {
+            long start = plugin.getPerformanceMonitor().start();
+            tick();
+            plugin.getPerformanceMonitor().stop("TimeAcceleration", start);
+        }
+
+        private void tick() {
+            int sleeping = plugin.getSleepStateIndex().getSleepingCount(world);
+            if (sleeping == 0) {
+                accelerators[slot] = null;
+                cancel();
+                return;
+            }
+
+            int active = plugin.getSleepStateIndex().getActiveCount(world);
+            double ratio = Math.min(1.0, (double) sleeping / Math.max(1, active));
+
+            // Keep the fractional part so low ratios still advance time smoothly
+            carry += extraTicksAtFullSleep * ratio;
+            long extraTicks = (long) carry;
+            if (extraTicks > 0) {
+                carry -= extraTicks;
+                // setTime fires a CUSTOM TimeSkipEvent, which also keeps the day counter current.
+                // Other plugins see one such event per accelerated tick and may cancel it;
+                // the skipped ticks are then lost and carry no longer matches the clock.
+                world.setTime(world.getTime() + extraTicks);
+            }
+        }
+    }
+
+    /**
+     * Cleanup method
+     */
+    public void cleanup() {
+        plugin.getWorldRegistry().unsubscribe(this);
+        for (WorldAccelerator accelerator : accelerators) {
+            if (accelerator != null) {
+                accelerator.cancel();
+            }
+        }
+        accelerators = new WorldAccelerator[0];
+    }
+}
@@ -2,123 +2,255 @@ package com.turjo.easysleep.managers;
 
 import com.turjo.easysleep.EasySleep;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.Scanner;
-import java.util.function.Consumer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Automatic update checker for EasySleep plugin
  * Checks SpigotMC resource page for new versions
- * 
+ *
+ * Requests run on a single daemon thread with connect and read timeouts
+ * plus an overall deadline, after which the connection is dropped, so a
+ * slow or trickling endpoint can never pin a thread. ETag and
+ * Last-Modified are sent back on later checks, and the endpoint can be
+ * changed or disabled under features.update-checker.
+ *
  * @author Turjo
- * @version 1.4.1
+ * @version 1.5.2
  */
 public class UpdateChecker {
-    
+
+    private static final String DEFAULT_ENDPOINT = "https://api.spigotmc.org/legacy/update.php?resource=127995";
+    private static final int MAX_RESPONSE_LENGTH = 64;
+
     private final EasySleep plugin;
-    private final int resourceId = 127995; // SpigotMC resource ID
+    private final ExecutorService executor;
+    private final ScheduledExecutorService watchdog;
+    private final AtomicBoolean checking;
+    private BukkitTask periodicTask;
+
+    // Written on the checker thread, read on the next request
+    private volatile String etag;
+    private volatile String lastModified;
+
+    // Main thread only
     private String latestVersion;
     private boolean updateAvailable = false;
-    
+
     public UpdateChecker(EasySleep plugin) {
         this.plugin = plugin;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EasySleep-UpdateChecker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EasySleep-UpdateChecker-Deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.checking = new AtomicBoolean();
     }
-    
+
     /**
      * Check for updates asynchronously
      */
     public void checkForUpdates() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        if (!config.getBoolean("features.update-checker.enabled", true)) {
+            return;
+        }
+
+        String endpoint = config.getString("features.update-checker.endpoint", DEFAULT_ENDPOINT);
+        int timeoutMillis = Math.max(1, config.getInt("features.update-checker.timeout-seconds", 5)) * 1000;
+        if (endpoint == null || endpoint.trim().isEmpty()) {
+            return;
+        }
+
+        // One request at a time; a slow endpoint must not pile up checks
+        if (!checking.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
                 try {
-                    getVersion(version -> {
-                        latestVersion = version;
-                        String currentVersion = plugin.getDescription().getVersion();
-                        
-                        if (!currentVersion.equals(version)) {
-                            updateAvailable = true;
-                            
-                            // Log to console
-                            plugin.getLogger().info("╔═══════════════════════════════════════════╗");
-                            plugin.getLogger().info("║        🔄 UPDATE AVAILABLE! 🔄            ║");
-                            plugin.getLogger().info("║                                           ║");
-                            plugin.getLogger().info("║ Current Version: " + String.format("%-20s", currentVersion) + "║");
-                            plugin.getLogger().info("║ Latest Version:  " + String.format("%-20s", version) + "║");
-                            plugin.getLogger().info("║                                           ║");
-                            plugin.getLogger().info("║ Download: spigotmc.org/resources/127995   ║");
-                            plugin.getLogger().info("╚═══════════════════════════════════════════╝");
-                            
-                            // Notify online admins
-                            Bukkit.getScheduler().runTask(plugin, () -> {
-                                for (Player player : Bukkit.getOnlinePlayers()) {
-                                    if (player.hasPermission("easysleep.admin")) {
-                                        player.sendMessage("§6╔═══════════════════════════════════════════╗");
-                                        player.sendMessage("§6║ §b🔄 §f§lEASYSLEEP UPDATE AVAILABLE §b🔄 §6║");
-                                        player.sendMessage("§6║ §fCurrent: §e" + currentVersion + " §7→ §fLatest: §a" + version + " §6║");
-                                        player.sendMessage("§6║ §7Download: §espigotmc.org/resources/127995 §6║");
-                                        player.sendMessage("§6╚═══════════════════════════════════════════╝");
-                                    }
-                                }
-                            });
-                        } else {
-                            plugin.getLogger().info("✓ EasySleep is up to date! (v" + currentVersion + ")");
-                        }
-                    });
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Could not check for updates: " + e.getMessage());
+                    String version = fetchVersion(endpoint.trim(), timeoutMillis);
+                    if (version != null) {
+                        Bukkit.getScheduler().runTask(plugin, () -> handleVersion(version));
+                    }
+                } finally {
+                    checking.set(false);
                 }
-            }
-        }.runTaskAsynchronously(plugin);
+            });
+        } catch (RejectedExecutionException e) {
+            // Plugin is shutting down
+            checking.set(false);
+        }
     }
-    
+
     /**
-     * Get version from SpigotMC API
+     * Fetch the latest version string
+     * @return the version, or null if unchanged since the last check or the request failed
      */
-    private void getVersion(Consumer<String> consumer) {
+    private String fetchVersion(String endpoint, int timeoutMillis) {
+        HttpURLConnection connection = null;
+        ScheduledFuture<?> deadline = null;
         try {
-            InputStream inputStream = new URL("https://api.spigotmc.org/legacy/update.php?resource=" + resourceId)
-                    .openStream();
-            Scanner scanner = new Scanner(inputStream);
-            
-            if (scanner.hasNext()) {
-                consumer.accept(scanner.next());
+            connection = (HttpURLConnection) new URL(endpoint).openConnection();
+
+            // Read timeouts apply per socket read; drop the connection once the whole request overruns
+            HttpURLConnection open = connection;
+            deadline = watchdog.schedule(open::disconnect, timeoutMillis, TimeUnit.MILLISECONDS);
+
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setUseCaches(false);
+            connection.setRequestProperty("User-Agent", "EasySleep/" + plugin.getDescription().getVersion());
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", lastModified);
+            }
+
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return null;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                plugin.getLogger().warning("Cannot look for updates: HTTP " + status);
+                return null;
+            }
+
+            // Read at most one short line
+            StringBuilder line = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                int c;
+                while ((c = reader.read()) != -1 && c != '\n' && line.length() <= MAX_RESPONSE_LENGTH) {
+                    line.append((char) c);
+                }
+            }
+            String version = line.toString();
+            if (version.trim().isEmpty() || version.length() > MAX_RESPONSE_LENGTH) {
+                plugin.getLogger().warning("Cannot look for updates: unexpected response");
+                return null;
+            }
+
+            etag = connection.getHeaderField("ETag");
+            lastModified = connection.getHeaderField("Last-Modified");
+            return version.trim();
+        } catch (IOException | IllegalArgumentException | ClassCastException e) {
+            if (deadline != null && deadline.isDone() && !deadline.isCancelled()) {
+                plugin.getLogger().warning("Cannot look for updates: no response within " + timeoutMillis + " ms");
+            } else {
+                plugin.getLogger().warning("Cannot look for updates: " + e.getMessage());
+            }
+            return null;
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Compare a fetched version with ours and announce it (main thread)
+     */
+    private void handleVersion(String version) {
+        latestVersion = version;
+        String currentVersion = plugin.getDescription().getVersion();
+
+        if (currentVersion.equals(version)) {
+            updateAvailable = false;
+            plugin.getLogger().info("✓ EasySleep is up to date! (v" + currentVersion + ")");
+            return;
+        }
+        updateAvailable = true;
+
+        // Log to console
+        plugin.getLogger().info("╔═══════════════════════════════════════════╗");
+        plugin.getLogger().info("║        🔄 UPDATE AVAILABLE! 🔄            ║");
+        plugin.getLogger().info("║                                           ║");
+        plugin.getLogger().info("║ Current Version: " + String.format("%-20s", currentVersion) + "║");
+        plugin.getLogger().info("║ Latest Version:  " + String.format("%-20s", version) + "║");
+        plugin.getLogger().info("║                                           ║");
+        plugin.getLogger().info("║ Download: spigotmc.org/resources/127995   ║");
+        plugin.getLogger().info("╚═══════════════════════════════════════════╝");
+
+        // Notify online admins
+        if (!plugin.getConfigManager().getConfig().getBoolean("features.update-checker.notify-admins", true)) {
+            return;
+        }
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.hasPermission("easysleep.admin")) {
+                player.sendMessage("§6╔═══════════════════════════════════════════╗");
+                player.sendMessage("§6║ §b🔄 §f§lEASYSLEEP UPDATE AVAILABLE §b🔄 §6║");
+                player.sendMessage("§6║ §fCurrent: §e" + currentVersion + " §7→ §fLatest: §a" + version + " §6║");
+                player.sendMessage("§6║ §7Download: §espigotmc.org/resources/127995 §6║");
+                player.sendMessage("§6╚═══════════════════════════════════════════╝");
             }
-            scanner.close();
-        } catch (IOException e) {
-            plugin.getLogger().warning("Cannot look for updates: " + e.getMessage());
         }
     }
-    
+
     /**
      * Check if update is available
      */
     public boolean isUpdateAvailable() {
         return updateAvailable;
     }
-    
+
     /**
      * Get latest version string
      */
     public String getLatestVersion() {
         return latestVersion;
     }
-    
+
     /**
      * Start periodic update checking
      */
     public void startPeriodicCheck() {
-        // Check every 6 hours
-        new BukkitRunnable() {
+        long hours = Math.max(1, plugin.getConfigManager().getConfig().getLong("features.update-checker.check-interval-hours", 6));
+        long intervalTicks = hours * 60 * 60 * 20;
+
+        // The task only hands the request to the checker thread
+        periodicTask = new BukkitRunnable() {
             @Override
             public void run() {
                 checkForUpdates();
             }
-        }.runTaskTimerAsynchronously(plugin, 0L, 432000L); // 6 hours = 432000 ticks
+        }.runTaskTimer(plugin, 0L, intervalTicks);
+    }
+
+    /**
+     * Cleanup method
+     */
+    public void cleanup() {
+        if (periodicTask != null) {
+            periodicTask.cancel();
+        }
+        executor.shutdownNow();
+        watchdog.shutdownNow();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.turjo.easysleep.managers;
+
+import org.bukkit.World;
+
+/**
+ * Callbacks from the WorldClockService
+ *
+ * All methods run on the main thread and default to doing nothing, so
+ * subscribers only override what they need.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public interface WorldClockListener {
+
+    /**
+     * The world clock moved further than it can in one sample interval
+     * (night skip, /time command, another plugin)
+     *
+     * @param world The world
+     * @param previousFullTime Full time at the previous sample
+     * @param fullTime Full time now
+     */
+    default void onTimeJump(World world, long previousFullTime, long fullTime) {
+    }
+
+    /**
+     * The world clock passed into another day
+     *
+     * @param world The world
+     * @param previousDay Day number (full time / 24000) at the previous sample
+     * @param day Day number now
+     */
+    default void onDayChange(World world, long previousDay, long day) {
+    }
+
+    /**
+     * The moon phase changed
+     *
+     * @param world The world
+     * @param previousPhase Phase index 0-7 at the previous sample
+     * @param phase Phase index 0-7 now
+     */
+    default void onMoonPhaseChange(World world, int previousPhase, int phase) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared observer of every world's clock
+ *
+ * Samples each loaded world's full time once per interval and tells
+ * subscribers about time jumps, day changes and moon phase changes, so
+ * managers no longer run their own loops over the worlds with their own
+ * last-seen-time maps.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class WorldClockService implements WorldSlotListener {
+
+    private static final long SAMPLE_INTERVAL_TICKS = 20L;
+    private static final long TICKS_PER_DAY = 24000L;
+    private static final int MOON_PHASES = 8;
+
+    // Drift beyond the sample interval that counts as a jump rather than acceleration
+    private static final long JUMP_THRESHOLD_TICKS = 200L;
+
+    private final EasySleep plugin;
+    private WorldClock[] clocks;
+    private final List<WorldClockListener> listeners;
+    private final BukkitTask sampleTask;
+
+    /**
+     * Last sample of one world
+     */
+    private static class WorldClock {
+        long fullTime;
+        long day;
+        int phase;
+    }
+
+    public WorldClockService(EasySleep plugin) {
+        this.plugin = plugin;
+        this.clocks = new WorldClock[0];
+        this.listeners = new ArrayList<>();
+        plugin.getWorldRegistry().subscribe(this);
+        this.sampleTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                long start = plugin.getPerformanceMonitor().start();
+                sample();
+                plugin.getPerformanceMonitor().stop("WorldClock", start);
+            }
+        }.runTaskTimer(plugin, SAMPLE_INTERVAL_TICKS, SAMPLE_INTERVAL_TICKS);
+    }
+
+    /**
+     * Register a listener
+     */
+    public void subscribe(WorldClockListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener
+     */
+    public void unsubscribe(WorldClockListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get the day number at a full time
+     */
+    public static long getDay(long fullTime) {
+        return Math.floorDiv(fullTime, TICKS_PER_DAY);
+    }
+
+    /**
+     * Get the moon phase index (0-7) at a full time
+     */
+    public static int getMoonPhase(long fullTime) {
+        return (int) Math.floorMod(getDay(fullTime), (long) MOON_PHASES);
+    }
+
+    /**
+     * Sample every loaded world once and dispatch changes
+     */
+    private void sample() {
+        for (World world : plugin.getServer().getWorlds()) {
+            long fullTime = world.getFullTime();
+            int slot = plugin.getWorldRegistry().getSlot(world);
+            clocks = WorldRegistry.fit(clocks, slot);
+            WorldClock clock = clocks[slot];
+            if (clock == null) {
+                // First sighting only sets the baseline
+                clock = new WorldClock();
+                clock.fullTime = fullTime;
+                clock.day = getDay(fullTime);
+                clock.phase = getMoonPhase(fullTime);
+                clocks[slot] = clock;
+                continue;
+            }
+
+            long previousFullTime = clock.fullTime;
+            long previousDay = clock.day;
+            int previousPhase = clock.phase;
+            clock.fullTime = fullTime;
+            clock.day = getDay(fullTime);
+            clock.phase = getMoonPhase(fullTime);
+
+            if (Math.abs(fullTime - previousFullTime - SAMPLE_INTERVAL_TICKS) > JUMP_THRESHOLD_TICKS) {
+                for (int i = 0; i < listeners.size(); i++) {
+                    listeners.get(i).onTimeJump(world, previousFullTime, fullTime);
+                }
+            }
+            if (clock.day != previousDay) {
+                for (int i = 0; i < listeners.size(); i++) {
+                    listeners.get(i).onDayChange(world, previousDay, clock.day);
+                }
+            }
+            if (clock.phase != previousPhase) {
+                for (int i = 0; i < listeners.size(); i++) {
+                    listeners.get(i).onMoonPhaseChange(world, previousPhase, clock.phase);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget a world (world unload)
+     */
+    @Override
+    public void onWorldRemoved(World world, int slot) {
+        if (slot < clocks.length) {
+            clocks[slot] = null;
+        }
+    }
+
+    /**
+     * Cleanup method
+     */
+    public void cleanup() {
+        sampleTask.cancel();
+        plugin.getWorldRegistry().unsubscribe(this);
+        listeners.clear();
+        clocks = new WorldClock[0];
+    }
+}
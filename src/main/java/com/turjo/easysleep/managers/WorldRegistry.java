@@ -0,0 +1,137 @@
+package com.turjo.easysleep.managers;
+
+import com.turjo.easysleep.EasySleep;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dense integer slots for loaded worlds
+ *
+ * Each loaded world gets the lowest free slot, keyed by its UID so renames
+ * keep their state. Managers keep per-world state in plain arrays indexed
+ * by slot and clear their entry when a world is removed. Main thread only.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public class WorldRegistry {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final EasySleep plugin;
+    private final Map<UUID, Integer> slots;
+    private final List<WorldSlotListener> listeners;
+    private World[] worlds;
+
+    public WorldRegistry(EasySleep plugin) {
+        this.plugin = plugin;
+        this.slots = new HashMap<>();
+        this.listeners = new ArrayList<>();
+        this.worlds = new World[INITIAL_CAPACITY];
+
+        for (World world : plugin.getServer().getWorlds()) {
+            register(world);
+        }
+    }
+
+    /**
+     * Register a listener
+     */
+    public void subscribe(WorldSlotListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener
+     */
+    public void unsubscribe(WorldSlotListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Give a world a slot (world load); does nothing if it already has one
+     *
+     * @return The world's slot
+     */
+    public int register(World world) {
+        Integer existing = slots.get(world.getUID());
+        if (existing != null) {
+            return existing;
+        }
+
+        int slot = 0;
+        while (slot < worlds.length && worlds[slot] != null) {
+            slot++;
+        }
+        worlds = fit(worlds, slot);
+        worlds[slot] = world;
+        slots.put(world.getUID(), slot);
+
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onWorldAdded(world, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Free a world's slot (world unload)
+     */
+    public void unregister(World world) {
+        Integer slot = slots.get(world.getUID());
+        if (slot == null) {
+            return;
+        }
+
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onWorldRemoved(world, slot);
+        }
+        slots.remove(world.getUID());
+        worlds[slot] = null;
+    }
+
+    /**
+     * Get a world's slot, registering it if it has none yet
+     */
+    public int getSlot(World world) {
+        Integer slot = slots.get(world.getUID());
+        return slot != null ? slot : register(world);
+    }
+
+    /**
+     * Get the world in a slot
+     *
+     * @return The world, or null if the slot is free
+     */
+    public World getWorld(int slot) {
+        return slot >= 0 && slot < worlds.length ? worlds[slot] : null;
+    }
+
+    /**
+     * Grow a per-world array so it can hold a slot
+     */
+    public static <T> T[] fit(T[] array, int slot) {
+        return slot < array.length ? array : Arrays.copyOf(array, Math.max(slot + 1, array.length * 2));
+    }
+
+    /**
+     * Grow a per-world flag array so it can hold a slot
+     */
+    public static boolean[] fit(boolean[] array, int slot) {
+        return slot < array.length ? array : Arrays.copyOf(array, Math.max(slot + 1, array.length * 2));
+    }
+
+    /**
+     * Cleanup method
+     */
+    public void cleanup() {
+        listeners.clear();
+        slots.clear();
+        Arrays.fill(worlds, null);
+    }
+}
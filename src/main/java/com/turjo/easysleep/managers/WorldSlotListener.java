@@ -0,0 +1,33 @@
+package com.turjo.easysleep.managers;
+
+import org.bukkit.World;
+
+/**
+ * Lifecycle callbacks from the WorldRegistry
+ *
+ * Owners of per-world slot arrays use onWorldRemoved to clear their slot
+ * before it is handed to another world.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public interface WorldSlotListener {
+
+    /**
+     * A world was given a slot
+     *
+     * @param world The world
+     * @param slot Its slot
+     */
+    default void onWorldAdded(World world, int slot) {
+    }
+
+    /**
+     * A world is about to give up its slot (world unload)
+     *
+     * @param world The world, still loaded
+     * @param slot Its slot
+     */
+    default void onWorldRemoved(World world, int slot) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.turjo.easysleep.storage;
+
+/**
+ * Compact achievement state for a single player
+ *
+ * Earned achievements are a bitmask over achievement ordinals, counters
+ * are a fixed int array and the "collect them all" style progress
+ * (moon phases, dimensions, dream types) are small bitmasks over the
+ * matching enum ordinals. Nothing here allocates after construction.
+ *
+ * @author Turjo
+ */
+public final class AchievementState {
+
+    // Counter slots
+    public static final int SLEEP_COUNT = 0;
+    public static final int RITUAL_COUNT = 1;
+    public static final int QUANTUM_COUNT = 2;
+    public static final int FULL_MOON_SLEEPS = 3;
+    public static final int COUNTER_COUNT = 4;
+
+    private long earned;
+    private final int[] counters = new int[COUNTER_COUNT];
+    private int moonPhases;
+    private int dimensions;
+    private int dreamTypes;
+
+    /**
+     * Check if an achievement has been earned
+     */
+    public boolean hasEarned(int ordinal) {
+        return (earned & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Mark an achievement as earned, returns false if it already was
+     */
+    public boolean earn(int ordinal) {
+        long bit = 1L << ordinal;
+        if ((earned & bit) != 0) {
+            return false;
+        }
+        earned |= bit;
+        return true;
+    }
+
+    /**
+     * Get number of earned achievements
+     */
+    public int getEarnedCount() {
+        return Long.bitCount(earned);
+    }
+
+    /**
+     * Get a counter value
+     */
+    public int getCounter(int counter) {
+        return counters[counter];
+    }
+
+    /**
+     * Increment a counter and return the new value
+     */
+    public int increment(int counter) {
+        return ++counters[counter];
+    }
+
+    /**
+     * Record a moon phase and return how many distinct phases were seen
+     */
+    public int addMoonPhase(int ordinal) {
+        moonPhases |= 1 << ordinal;
+        return Integer.bitCount(moonPhases);
+    }
+
+    /**
+     * Record a dimension and return how many distinct dimensions were seen
+     */
+    public int addDimension(int ordinal) {
+        dimensions |= 1 << ordinal;
+        return Integer.bitCount(dimensions);
+    }
+
+    /**
+     * Record a dream type and return how many distinct types were seen
+     */
+    public int addDreamType(int ordinal) {
+        dreamTypes |= 1 << ordinal;
+        return Integer.bitCount(dreamTypes);
+    }
+
+    /**
+     * Merge stored state in, keeping anything recorded before the load finished
+     */
+    public void merge(AchievementState other) {
+        earned |= other.earned;
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            counters[i] += other.counters[i];
+        }
+        moonPhases |= other.moonPhases;
+        dimensions |= other.dimensions;
+        dreamTypes |= other.dreamTypes;
+    }
+
+    /**
+     * Copy this state so it can be handed to the I/O thread
+     */
+    public AchievementState copy() {
+        AchievementState copy = new AchievementState();
+        copy.merge(this);
+        return copy;
+    }
+
+    // Raw access for serializers
+    public long getEarnedMask() { return earned; }
+    public int getMoonPhaseMask() { return moonPhases; }
+    public int getDimensionMask() { return dimensions; }
+    public int getDreamTypeMask() { return dreamTypes; }
+
+    public void setEarnedMask(long earned) { this.earned = earned; }
+    public void setCounter(int counter, int value) { counters[counter] = value; }
+    public void setMoonPhaseMask(int moonPhases) { this.moonPhases = moonPhases; }
+    public void setDimensionMask(int dimensions) { this.dimensions = dimensions; }
+    public void setDreamTypeMask(int dreamTypes) { this.dreamTypes = dreamTypes; }
+}
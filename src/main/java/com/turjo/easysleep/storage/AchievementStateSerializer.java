@@ -0,0 +1,146 @@
+package com.turjo.easysleep.storage;
+
+import com.turjo.easysleep.managers.DreamSequenceManager;
+import com.turjo.easysleep.managers.MoonPhaseManager;
+import com.turjo.easysleep.managers.SleepAchievementManager;
+import org.bukkit.World;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Binary format for AchievementState
+ *
+ * Layout: version byte, counter count (byte), counters (int each), then
+ * the earned achievements, moon phases, dimensions and dream types, each
+ * as a name count (short) followed by the constant names. Names rather
+ * than ordinals keep stored progress valid if an enum is reordered, and
+ * unknown names and trailing counters from newer versions are skipped.
+ *
+ * @author Turjo
+ */
+public final class AchievementStateSerializer {
+
+    private static final byte VERSION = 1;
+
+    private AchievementStateSerializer() {
+    }
+
+    /**
+     * Encode a state to bytes
+     */
+    public static byte[] serialize(AchievementState state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(AchievementState.COUNTER_COUNT);
+            for (int i = 0; i < AchievementState.COUNTER_COUNT; i++) {
+                out.writeInt(state.getCounter(i));
+            }
+
+            SleepAchievementManager.SleepAchievement[] achievements = SleepAchievementManager.SleepAchievement.values();
+            int earnedCount = 0;
+            for (SleepAchievementManager.SleepAchievement achievement : achievements) {
+                if (state.hasEarned(achievement.ordinal())) {
+                    earnedCount++;
+                }
+            }
+            out.writeShort(earnedCount);
+            for (SleepAchievementManager.SleepAchievement achievement : achievements) {
+                if (state.hasEarned(achievement.ordinal())) {
+                    out.writeUTF(achievement.name());
+                }
+            }
+
+            writeNames(out, MoonPhaseManager.MoonPhase.values(), state.getMoonPhaseMask());
+            writeNames(out, World.Environment.values(), state.getDimensionMask());
+            writeNames(out, DreamSequenceManager.DreamType.values(), state.getDreamTypeMask());
+        } catch (IOException e) {
+            // Cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a state from bytes
+     */
+    public static AchievementState deserialize(byte[] data) throws IOException {
+        if (data.length == 0) {
+            throw new IOException("Empty achievement data");
+        }
+        if (data[0] != VERSION) {
+            throw new IOException("Unknown achievement data version " + data[0]);
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            in.readByte();
+            AchievementState state = new AchievementState();
+            readCounters(in.readUnsignedByte(), state, in);
+
+            int earnedCount = in.readUnsignedShort();
+            for (int i = 0; i < earnedCount; i++) {
+                String name = in.readUTF();
+                for (SleepAchievementManager.SleepAchievement achievement : SleepAchievementManager.SleepAchievement.values()) {
+                    if (achievement.name().equals(name)) {
+                        state.earn(achievement.ordinal());
+                        break;
+                    }
+                }
+            }
+
+            state.setMoonPhaseMask(readNames(in, MoonPhaseManager.MoonPhase.values()));
+            state.setDimensionMask(readNames(in, World.Environment.values()));
+            state.setDreamTypeMask(readNames(in, DreamSequenceManager.DreamType.values()));
+            return state;
+        } catch (EOFException e) {
+            throw new IOException("Truncated achievement data");
+        }
+    }
+
+    /**
+     * Read counters, skipping any this version does not know
+     */
+    private static void readCounters(int counterCount, AchievementState state, DataInputStream in) throws IOException {
+        for (int i = 0; i < counterCount; i++) {
+            int value = in.readInt();
+            if (i < AchievementState.COUNTER_COUNT) {
+                state.setCounter(i, value);
+            }
+        }
+    }
+
+    /**
+     * Write the names of the enum constants set in a bitmask
+     */
+    private static void writeNames(DataOutputStream out, Enum<?>[] values, int mask) throws IOException {
+        out.writeShort(Integer.bitCount(mask));
+        for (Enum<?> value : values) {
+            if ((mask & (1 << value.ordinal())) != 0) {
+                out.writeUTF(value.name());
+            }
+        }
+    }
+
+    /**
+     * Read enum constant names back into a bitmask, skipping unknown ones
+     */
+    private static int readNames(DataInputStream in, Enum<?>[] values) throws IOException {
+        int mask = 0;
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            for (Enum<?> value : values) {
+                if (value.name().equals(name)) {
+                    mask |= 1 << value.ordinal();
+                    break;
+                }
+            }
+        }
+        return mask;
+    }
+}
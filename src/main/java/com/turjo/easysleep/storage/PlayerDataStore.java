@@ -0,0 +1,86 @@
+package com.turjo.easysleep.storage;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persistent storage backend for all EasySleep data
+ *
+ * Implementations are not thread-safe. The StorageManager only ever
+ * calls them from its single I/O thread.
+ *
+ * @author Turjo
+ */
+public interface PlayerDataStore {
+
+    /**
+     * Open the backend (create files, connect, create tables)
+     */
+    void open() throws IOException;
+
+    /**
+     * Close the backend and release any held resources
+     */
+    void close();
+
+    /**
+     * Get a readable backend name for logging
+     */
+    String getName();
+
+    /**
+     * Check if the backend holds no data yet (used for migration)
+     */
+    boolean isEmpty() throws IOException;
+
+    /**
+     * Load global statistics counters
+     */
+    Map<String, Long> loadStatistics() throws IOException;
+
+    /**
+     * Replace global statistics counters
+     */
+    void saveStatistics(Map<String, Long> statistics) throws IOException;
+
+    /**
+     * Load day counter data keyed by world name
+     */
+    Map<String, WorldDayRecord> loadWorldDays() throws IOException;
+
+    /**
+     * Insert or update day counter data for the given worlds
+     */
+    void saveWorldDays(Map<String, WorldDayRecord> worldDays) throws IOException;
+
+    /**
+     * Load one player's sleep streak, or null if none is stored
+     */
+    StreakRecord loadStreak(UUID uuid) throws IOException;
+
+    /**
+     * Load all stored sleep streaks (used for migration)
+     */
+    Map<UUID, StreakRecord> loadStreaks() throws IOException;
+
+    /**
+     * Insert or update sleep streaks for the given players
+     */
+    void saveStreaks(Map<UUID, StreakRecord> streaks) throws IOException;
+
+    /**
+     * Load achievement state for one player, or null if none is stored
+     */
+    AchievementState loadAchievements(UUID uuid) throws IOException;
+
+    /**
+     * Load achievement state for all stored players (used for migration)
+     */
+    Map<UUID, AchievementState> loadAllAchievements() throws IOException;
+
+    /**
+     * Insert or update achievement state for the given players
+     */
+    void saveAchievements(Map<UUID, AchievementState> achievements) throws IOException;
+}
@@ -0,0 +1,274 @@
+package com.turjo.easysleep.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * SQLite storage backend
+ *
+ * Uses the sqlite-jdbc driver bundled with Spigot. Writes are grouped
+ * into one transaction per save call with batched prepared statements,
+ * so only changed rows are touched instead of rewriting whole files.
+ *
+ * @author Turjo
+ */
+public class SqlitePlayerDataStore implements PlayerDataStore {
+
+    private final File databaseFile;
+    private final Logger logger;
+    private Connection connection;
+
+    public SqlitePlayerDataStore(File databaseFile, Logger logger) {
+        this.databaseFile = databaseFile;
+        this.logger = logger;
+    }
+
+    @Override
+    public void open() throws IOException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("CREATE TABLE IF NOT EXISTS statistics ("
+                    + "stat_key TEXT PRIMARY KEY, stat_value INTEGER NOT NULL)");
+                statement.execute("CREATE TABLE IF NOT EXISTS world_days ("
+                    + "world TEXT PRIMARY KEY, days INTEGER NOT NULL, last_time INTEGER NOT NULL)");
+                statement.execute("CREATE TABLE IF NOT EXISTS streaks ("
+                    + "uuid TEXT PRIMARY KEY, streak INTEGER NOT NULL, last_reward INTEGER NOT NULL)");
+                statement.execute("CREATE TABLE IF NOT EXISTS achievement_state ("
+                    + "uuid TEXT PRIMARY KEY, state BLOB NOT NULL)");
+            }
+            connection.setAutoCommit(false);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("SQLite driver not available", e);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warning("Could not close SQLite connection: " + e.getMessage());
+        }
+        connection = null;
+    }
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    public boolean isEmpty() throws IOException {
+        String[] tables = {"statistics", "world_days", "streaks", "achievement_state"};
+        try (Statement statement = connection.createStatement()) {
+            for (String table : tables) {
+                try (ResultSet result = statement.executeQuery("SELECT 1 FROM " + table + " LIMIT 1")) {
+                    if (result.next()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> loadStatistics() throws IOException {
+        Map<String, Long> statistics = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT stat_key, stat_value FROM statistics")) {
+            while (result.next()) {
+                statistics.put(result.getString(1), result.getLong(2));
+            }
+            return statistics;
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void saveStatistics(Map<String, Long> statistics) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT OR REPLACE INTO statistics (stat_key, stat_value) VALUES (?, ?)")) {
+            for (Map.Entry<String, Long> entry : statistics.entrySet()) {
+                statement.setString(1, entry.getKey());
+                statement.setLong(2, entry.getValue());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            throw rollback(e);
+        }
+    }
+
+    @Override
+    public Map<String, WorldDayRecord> loadWorldDays() throws IOException {
+        Map<String, WorldDayRecord> worldDays = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT world, days, last_time FROM world_days")) {
+            while (result.next()) {
+                worldDays.put(result.getString(1), new WorldDayRecord(result.getLong(2), result.getLong(3)));
+            }
+            return worldDays;
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void saveWorldDays(Map<String, WorldDayRecord> worldDays) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT OR REPLACE INTO world_days (world, days, last_time) VALUES (?, ?, ?)")) {
+            for (Map.Entry<String, WorldDayRecord> entry : worldDays.entrySet()) {
+                statement.setString(1, entry.getKey());
+                statement.setLong(2, entry.getValue().getDays());
+                statement.setLong(3, entry.getValue().getLastTime());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            throw rollback(e);
+        }
+    }
+
+    @Override
+    public StreakRecord loadStreak(UUID uuid) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT streak, last_reward FROM streaks WHERE uuid = ?")) {
+            statement.setString(1, uuid.toString());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? new StreakRecord(result.getInt(1), result.getLong(2)) : null;
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<UUID, StreakRecord> loadStreaks() throws IOException {
+        Map<UUID, StreakRecord> streaks = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT uuid, streak, last_reward FROM streaks")) {
+            while (result.next()) {
+                UUID uuid = parseUuid(result.getString(1));
+                if (uuid != null) {
+                    streaks.put(uuid, new StreakRecord(result.getInt(2), result.getLong(3)));
+                }
+            }
+            return streaks;
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void saveStreaks(Map<UUID, StreakRecord> streaks) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT OR REPLACE INTO streaks (uuid, streak, last_reward) VALUES (?, ?, ?)")) {
+            for (Map.Entry<UUID, StreakRecord> entry : streaks.entrySet()) {
+                statement.setString(1, entry.getKey().toString());
+                statement.setInt(2, entry.getValue().getStreak());
+                statement.setLong(3, entry.getValue().getLastReward());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            throw rollback(e);
+        }
+    }
+
+    @Override
+    public AchievementState loadAchievements(UUID uuid) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT state FROM achievement_state WHERE uuid = ?")) {
+            statement.setString(1, uuid.toString());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? AchievementStateSerializer.deserialize(result.getBytes(1)) : null;
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<UUID, AchievementState> loadAllAchievements() throws IOException {
+        Map<UUID, AchievementState> achievements = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT uuid, state FROM achievement_state")) {
+            while (result.next()) {
+                UUID uuid = parseUuid(result.getString(1));
+                if (uuid != null) {
+                    achievements.put(uuid, AchievementStateSerializer.deserialize(result.getBytes(2)));
+                }
+            }
+            return achievements;
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void saveAchievements(Map<UUID, AchievementState> achievements) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT OR REPLACE INTO achievement_state (uuid, state) VALUES (?, ?)")) {
+            for (Map.Entry<UUID, AchievementState> entry : achievements.entrySet()) {
+                statement.setString(1, entry.getKey().toString());
+                statement.setBytes(2, AchievementStateSerializer.serialize(entry.getValue()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            throw rollback(e);
+        }
+    }
+
+    /**
+     * Roll back the current transaction and wrap the failure
+     */
+    private IOException rollback(SQLException cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.warning("Could not roll back SQLite transaction: " + e.getMessage());
+        }
+        return new IOException(cause.getMessage(), cause);
+    }
+
+    /**
+     * Parse a UUID column, skipping anything that is not one
+     */
+    private UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            logger.warning("Skipping invalid player entry in storage: " + value);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.turjo.easysleep.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Memory-mapped sleep streak table (streaks.dat)
+ *
+ * Fixed-width records in an open-addressing hash table keyed by UUID,
+ * so a lookup or update touches one or two records in place. When the
+ * table fills up a table of twice the size is written after the old one
+ * and the header is switched to it with a single write, so a crash
+ * during growth leaves the old table in use. Records are never removed.
+ *
+ * Layout: 16 byte header (magic, version, capacity, size), then the
+ * tables, each record being UUID (16), last reward (8), streak (4) and
+ * a used flag (4) that is written last.
+ *
+ * Not thread-safe, like the stores that use it.
+ *
+ * @author Turjo
+ */
+public class StreakFile {
+
+    private static final int MAGIC = 0x45535354; // "ESST"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 32;
+    private static final int MIN_CAPACITY = 64;
+
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int LAST_REWARD_OFFSET = 16;
+    private static final int STREAK_OFFSET = 24;
+    private static final int USED_OFFSET = 28;
+
+    private final File file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    public StreakFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Map the file, creating an empty table if it does not exist
+     *
+     * @throws IOException If the file cannot be mapped or is not a streak file
+     */
+    public void open() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            map(MIN_CAPACITY);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(SIZE_OFFSET, 0);
+            buffer.putInt(CAPACITY_OFFSET, MIN_CAPACITY);
+            capacity = MIN_CAPACITY;
+            size = 0;
+            return;
+        }
+
+        if (channel.size() < HEADER_SIZE) {
+            close();
+            throw new IOException(file.getName() + " is not a valid streak file");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        int storedCapacity = buffer.getInt(CAPACITY_OFFSET);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || storedCapacity < MIN_CAPACITY || Integer.bitCount(storedCapacity) != 1
+                || channel.size() < fileLength(storedCapacity)) {
+            close();
+            throw new IOException(file.getName() + " is not a valid streak file");
+        }
+
+        map(storedCapacity);
+        capacity = storedCapacity;
+        size = buffer.getInt(SIZE_OFFSET);
+    }
+
+    /**
+     * Look up one player's streak
+     *
+     * @return The stored record, or null if the player has none
+     */
+    public StreakRecord get(UUID uuid) {
+        int position = find(uuid);
+        if (position < 0) {
+            return null;
+        }
+        return new StreakRecord(buffer.getInt(position + STREAK_OFFSET), buffer.getLong(position + LAST_REWARD_OFFSET));
+    }
+
+    /**
+     * Insert or update one player's streak in place
+     */
+    public void put(UUID uuid, StreakRecord record) throws IOException {
+        int position = find(uuid);
+        if (position >= 0) {
+            buffer.putLong(position + LAST_REWARD_OFFSET, record.getLastReward());
+            buffer.putInt(position + STREAK_OFFSET, record.getStreak());
+            return;
+        }
+
+        // Keep the load factor under 0.7 so probe chains stay short
+        if ((size + 1) * 10L > capacity * 7L) {
+            grow();
+        }
+        insert(tableOffset(capacity), capacity, uuid, record.getStreak(), record.getLastReward());
+        size++;
+        buffer.putInt(SIZE_OFFSET, size);
+    }
+
+    /**
+     * Read every stored streak (migration only)
+     */
+    public Map<UUID, StreakRecord> getAll() {
+        Map<UUID, StreakRecord> streaks = new HashMap<>();
+        int table = tableOffset(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            int position = table + slot * RECORD_SIZE;
+            if (buffer.getInt(position + USED_OFFSET) != 0) {
+                streaks.put(new UUID(buffer.getLong(position), buffer.getLong(position + 8)),
+                    new StreakRecord(buffer.getInt(position + STREAK_OFFSET), buffer.getLong(position + LAST_REWARD_OFFSET)));
+            }
+        }
+        return streaks;
+    }
+
+    /**
+     * Check if no streaks are stored
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Write changed pages to disk
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Flush and release the file
+     */
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+            channel.close();
+        } catch (IOException e) {
+            // Pages are written back by the OS even if the close fails
+        }
+        channel = null;
+        buffer = null;
+    }
+
+    /**
+     * Find a player's record
+     * @return the record position, or -1 if not stored
+     */
+    private int find(UUID uuid) {
+        int table = tableOffset(capacity);
+        int mask = capacity - 1;
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+
+        for (int slot = hash(most, least) & mask, probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+            int position = table + slot * RECORD_SIZE;
+            if (buffer.getInt(position + USED_OFFSET) == 0) {
+                return -1;
+            }
+            if (buffer.getLong(position) == most && buffer.getLong(position + 8) == least) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Write a record into the first free slot of a table
+     */
+    private void insert(int table, int tableCapacity, UUID uuid, int streak, long lastReward) {
+        int mask = tableCapacity - 1;
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+
+        int slot = hash(most, least) & mask;
+        while (buffer.getInt(table + slot * RECORD_SIZE + USED_OFFSET) != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        int position = table + slot * RECORD_SIZE;
+        buffer.putLong(position, most);
+        buffer.putLong(position + 8, least);
+        buffer.putLong(position + LAST_REWARD_OFFSET, lastReward);
+        buffer.putInt(position + STREAK_OFFSET, streak);
+        buffer.putInt(position + USED_OFFSET, 1);
+    }
+
+    /**
+     * Rehash into a table of twice the size, then switch the header to it
+     */
+    private void grow() throws IOException {
+        int oldTable = tableOffset(capacity);
+        int newCapacity = capacity * 2;
+        map(newCapacity);
+
+        // Clear what an interrupted earlier grow may have left behind
+        int newTable = tableOffset(newCapacity);
+        for (int position = newTable; position < newTable + newCapacity * RECORD_SIZE; position += 8) {
+            buffer.putLong(position, 0L);
+        }
+        for (int slot = 0; slot < capacity; slot++) {
+            int position = oldTable + slot * RECORD_SIZE;
+            if (buffer.getInt(position + USED_OFFSET) != 0) {
+                insert(newTable, newCapacity,
+                    new UUID(buffer.getLong(position), buffer.getLong(position + 8)),
+                    buffer.getInt(position + STREAK_OFFSET),
+                    buffer.getLong(position + LAST_REWARD_OFFSET));
+            }
+        }
+
+        // The new table must be on disk before the header points at it
+        buffer.force();
+        buffer.putInt(CAPACITY_OFFSET, newCapacity);
+        buffer.force();
+        capacity = newCapacity;
+    }
+
+    /**
+     * Map the file up to the end of the table for a capacity
+     */
+    private void map(int tableCapacity) throws IOException {
+        long length = fileLength(tableCapacity);
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException(file.getName() + " is too large");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+    }
+
+    /**
+     * Tables are laid out one after another, doubling from the minimum size
+     */
+    private static int tableOffset(int tableCapacity) {
+        return HEADER_SIZE + (tableCapacity - MIN_CAPACITY) * RECORD_SIZE;
+    }
+
+    private static long fileLength(int tableCapacity) {
+        return HEADER_SIZE + (2L * tableCapacity - MIN_CAPACITY) * RECORD_SIZE;
+    }
+
+    private static int hash(long most, long least) {
+        long h = most ^ least;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
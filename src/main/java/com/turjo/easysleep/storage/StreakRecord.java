@@ -0,0 +1,20 @@
+package com.turjo.easysleep.storage;
+
+/**
+ * Stored sleep streak state for a single player
+ *
+ * @author Turjo
+ */
+public final class StreakRecord {
+
+    private final int streak;
+    private final long lastReward;
+
+    public StreakRecord(int streak, long lastReward) {
+        this.streak = streak;
+        this.lastReward = lastReward;
+    }
+
+    public int getStreak() { return streak; }
+    public long getLastReward() { return lastReward; }
+}
@@ -0,0 +1,20 @@
+package com.turjo.easysleep.storage;
+
+/**
+ * Stored day counter state for a single world
+ *
+ * @author Turjo
+ */
+public final class WorldDayRecord {
+
+    private final long days;
+    private final long lastTime;
+
+    public WorldDayRecord(long days, long lastTime) {
+        this.days = days;
+        this.lastTime = lastTime;
+    }
+
+    public long getDays() { return days; }
+    public long getLastTime() { return lastTime; }
+}
@@ -0,0 +1,356 @@
+package com.turjo.easysleep.storage;
+
+import com.turjo.easysleep.managers.DreamSequenceManager;
+import com.turjo.easysleep.managers.MoonPhaseManager;
+import com.turjo.easysleep.managers.SleepAchievementManager;
+import com.turjo.easysleep.utils.FileUtils;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Flat-file YAML storage backend
+ *
+ * Keeps the file layout used by earlier versions (statistics.yml,
+ * daydata.yml) so existing data keeps working. Achievements are kept
+ * in one file per player under achievements/ so a save only touches
+ * the players that changed; an old achievements.yml is split up once.
+ * Achievement files store names rather than bitmasks so they stay
+ * readable and survive enum reordering. Every save rewrites its file
+ * atomically, except sleep streaks, which live in the memory-mapped
+ * streaks.dat and are updated in place; an old streaks.yml is imported
+ * once.
+ *
+ * @author Turjo
+ */
+public class YamlPlayerDataStore implements PlayerDataStore {
+
+    // Progress keys matching the AchievementState counter slots
+    private static final String[] COUNTER_KEYS = {"sleep_count", "ritual_count", "quantum_count", "full_moon_sleeps"};
+
+    private final File dataFolder;
+    private final Logger logger;
+
+    private File statisticsFile;
+    private File dayDataFile;
+    private File achievementFolder;
+
+    private YamlConfiguration dayDataConfig;
+    private StreakFile streaks;
+
+    public YamlPlayerDataStore(File dataFolder, Logger logger) {
+        this.dataFolder = dataFolder;
+        this.logger = logger;
+    }
+
+    @Override
+    public void open() throws IOException {
+        if (!dataFolder.exists() && !dataFolder.mkdirs()) {
+            throw new IOException("Could not create " + dataFolder);
+        }
+
+        statisticsFile = new File(dataFolder, "statistics.yml");
+        dayDataFile = new File(dataFolder, "daydata.yml");
+        achievementFolder = new File(dataFolder, "achievements");
+
+        dayDataConfig = YamlConfiguration.loadConfiguration(dayDataFile);
+        openStreaks();
+        importLegacyStreaks();
+
+        if (!achievementFolder.exists() && !achievementFolder.mkdirs()) {
+            throw new IOException("Could not create " + achievementFolder);
+        }
+        splitLegacyAchievements();
+    }
+
+    /**
+     * Split an achievements.yml from older versions into per-player files
+     */
+    private void splitLegacyAchievements() throws IOException {
+        File legacyFile = new File(dataFolder, "achievements.yml");
+        if (!legacyFile.exists()) {
+            return;
+        }
+
+        YamlConfiguration legacy = YamlConfiguration.loadConfiguration(legacyFile);
+        for (String key : legacy.getKeys(false)) {
+            ConfigurationSection section = legacy.getConfigurationSection(key);
+            if (section != null && parseUuid(key) != null) {
+                YamlConfiguration playerConfig = new YamlConfiguration();
+                for (String path : section.getKeys(true)) {
+                    if (!section.isConfigurationSection(path)) {
+                        playerConfig.set(path, section.get(path));
+                    }
+                }
+                FileUtils.writeAtomically(new File(achievementFolder, key + ".yml"), playerConfig.saveToString());
+            }
+        }
+
+        if (!legacyFile.renameTo(new File(dataFolder, "achievements.yml.old"))) {
+            throw new IOException("Could not rename " + legacyFile);
+        }
+        logger.info("Split achievements.yml into per-player files");
+    }
+
+    /**
+     * Map streaks.dat, setting a damaged file aside rather than failing to start
+     */
+    private void openStreaks() throws IOException {
+        File file = new File(dataFolder, "streaks.dat");
+        streaks = new StreakFile(file);
+        try {
+            streaks.open();
+        } catch (IOException e) {
+            File damaged = new File(dataFolder, "streaks.dat.broken");
+            if (!file.renameTo(damaged)) {
+                throw e;
+            }
+            logger.warning("Could not read streaks.dat, moved it to " + damaged.getName() + ": " + e.getMessage());
+            streaks.open();
+        }
+    }
+
+    /**
+     * Import a streaks.yml from older versions into streaks.dat
+     */
+    private void importLegacyStreaks() throws IOException {
+        File legacyFile = new File(dataFolder, "streaks.yml");
+        if (!legacyFile.exists()) {
+            return;
+        }
+
+        YamlConfiguration legacy = YamlConfiguration.loadConfiguration(legacyFile);
+        for (String key : legacy.getKeys(false)) {
+            UUID uuid = parseUuid(key);
+            if (uuid != null) {
+                streaks.put(uuid, new StreakRecord(legacy.getInt(key + ".streak", 0), legacy.getLong(key + ".last-reward", 0)));
+            }
+        }
+        streaks.force();
+
+        if (!legacyFile.renameTo(new File(dataFolder, "streaks.yml.old"))) {
+            throw new IOException("Could not rename " + legacyFile);
+        }
+        logger.info("Imported streaks.yml into streaks.dat");
+    }
+
+    @Override
+    public void close() {
+        // Only the streak file is held open between writes
+        if (streaks != null) {
+            streaks.close();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "YAML";
+    }
+
+    @Override
+    public boolean isEmpty() {
+        String[] achievementFiles = achievementFolder.list();
+        return !statisticsFile.exists() && !dayDataFile.exists() && streaks.isEmpty()
+            && (achievementFiles == null || achievementFiles.length == 0);
+    }
+
+    @Override
+    public Map<String, Long> loadStatistics() {
+        Map<String, Long> statistics = new HashMap<>();
+        if (!statisticsFile.exists()) {
+            return statistics;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(statisticsFile);
+        for (String key : config.getKeys(false)) {
+            if (!key.equals("last-updated")) {
+                statistics.put(key, config.getLong(key, 0));
+            }
+        }
+        return statistics;
+    }
+
+    @Override
+    public void saveStatistics(Map<String, Long> statistics) throws IOException {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<String, Long> entry : statistics.entrySet()) {
+            config.set(entry.getKey(), entry.getValue());
+        }
+        config.set("last-updated", System.currentTimeMillis());
+
+        FileUtils.writeAtomically(statisticsFile, config.saveToString());
+    }
+
+    @Override
+    public Map<String, WorldDayRecord> loadWorldDays() {
+        Map<String, WorldDayRecord> worldDays = new HashMap<>();
+        ConfigurationSection worlds = dayDataConfig.getConfigurationSection("worlds");
+        if (worlds == null) {
+            return worldDays;
+        }
+
+        for (String worldName : worlds.getKeys(false)) {
+            worldDays.put(worldName, new WorldDayRecord(
+                worlds.getLong(worldName + ".days", 1),
+                worlds.getLong(worldName + ".lastTime", 0)));
+        }
+        return worldDays;
+    }
+
+    @Override
+    public void saveWorldDays(Map<String, WorldDayRecord> worldDays) throws IOException {
+        for (Map.Entry<String, WorldDayRecord> entry : worldDays.entrySet()) {
+            String path = "worlds." + entry.getKey();
+            dayDataConfig.set(path + ".days", entry.getValue().getDays());
+            dayDataConfig.set(path + ".lastTime", entry.getValue().getLastTime());
+        }
+
+        FileUtils.writeAtomically(dayDataFile, dayDataConfig.saveToString());
+    }
+
+    @Override
+    public StreakRecord loadStreak(UUID uuid) {
+        return streaks.get(uuid);
+    }
+
+    @Override
+    public Map<UUID, StreakRecord> loadStreaks() {
+        return streaks.getAll();
+    }
+
+    @Override
+    public void saveStreaks(Map<UUID, StreakRecord> changed) throws IOException {
+        for (Map.Entry<UUID, StreakRecord> entry : changed.entrySet()) {
+            streaks.put(entry.getKey(), entry.getValue());
+        }
+        streaks.force();
+    }
+
+    @Override
+    public AchievementState loadAchievements(UUID uuid) {
+        File file = new File(achievementFolder, uuid + ".yml");
+        if (!file.exists()) {
+            return null;
+        }
+        return readAchievements(YamlConfiguration.loadConfiguration(file));
+    }
+
+    @Override
+    public Map<UUID, AchievementState> loadAllAchievements() {
+        Map<UUID, AchievementState> achievements = new HashMap<>();
+        File[] files = achievementFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files == null) {
+            return achievements;
+        }
+
+        for (File file : files) {
+            UUID uuid = parseUuid(file.getName().substring(0, file.getName().length() - 4));
+            if (uuid != null) {
+                achievements.put(uuid, readAchievements(YamlConfiguration.loadConfiguration(file)));
+            }
+        }
+        return achievements;
+    }
+
+    @Override
+    public void saveAchievements(Map<UUID, AchievementState> achievements) throws IOException {
+        for (Map.Entry<UUID, AchievementState> entry : achievements.entrySet()) {
+            AchievementState state = entry.getValue();
+            YamlConfiguration config = new YamlConfiguration();
+
+            List<String> earned = new ArrayList<>();
+            for (SleepAchievementManager.SleepAchievement achievement : SleepAchievementManager.SleepAchievement.values()) {
+                if (state.hasEarned(achievement.ordinal())) {
+                    earned.add(achievement.name());
+                }
+            }
+            config.set("achievements", earned);
+
+            for (int i = 0; i < COUNTER_KEYS.length; i++) {
+                config.set("progress." + COUNTER_KEYS[i], state.getCounter(i));
+            }
+            config.set("string_progress.moon_phases", joinNames(MoonPhaseManager.MoonPhase.values(), state.getMoonPhaseMask()));
+            config.set("string_progress.dimensions_slept", joinNames(World.Environment.values(), state.getDimensionMask()));
+            config.set("string_progress.dream_types", joinNames(DreamSequenceManager.DreamType.values(), state.getDreamTypeMask()));
+
+            FileUtils.writeAtomically(new File(achievementFolder, entry.getKey() + ".yml"), config.saveToString());
+        }
+    }
+
+    /**
+     * Read one player's achievement file
+     */
+    private AchievementState readAchievements(YamlConfiguration config) {
+        AchievementState state = new AchievementState();
+
+        for (String name : config.getStringList("achievements")) {
+            try {
+                state.earn(SleepAchievementManager.SleepAchievement.valueOf(name).ordinal());
+            } catch (IllegalArgumentException e) {
+                logger.warning("Skipping unknown achievement in storage: " + name);
+            }
+        }
+
+        for (int i = 0; i < COUNTER_KEYS.length; i++) {
+            state.setCounter(i, config.getInt("progress." + COUNTER_KEYS[i], 0));
+        }
+
+        state.setMoonPhaseMask(parseNames(MoonPhaseManager.MoonPhase.values(), config.getString("string_progress.moon_phases", "")));
+        state.setDimensionMask(parseNames(World.Environment.values(), config.getString("string_progress.dimensions_slept", "")));
+        state.setDreamTypeMask(parseNames(DreamSequenceManager.DreamType.values(), config.getString("string_progress.dream_types", "")));
+        return state;
+    }
+
+    /**
+     * Join the names of the enum constants set in a bitmask
+     */
+    private String joinNames(Enum<?>[] values, int mask) {
+        StringBuilder builder = new StringBuilder();
+        for (Enum<?> value : values) {
+            if ((mask & (1 << value.ordinal())) != 0) {
+                if (builder.length() > 0) {
+                    builder.append(',');
+                }
+                builder.append(value.name());
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Build a bitmask from comma separated enum constant names
+     */
+    private int parseNames(Enum<?>[] values, String data) {
+        int mask = 0;
+        for (String name : data.split(",")) {
+            for (Enum<?> value : values) {
+                if (value.name().equals(name)) {
+                    mask |= 1 << value.ordinal();
+                    break;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Parse a UUID key, skipping anything that is not one
+     */
+    private UUID parseUuid(String key) {
+        try {
+            return UUID.fromString(key);
+        } catch (IllegalArgumentException e) {
+            logger.warning("Skipping invalid player entry in storage: " + key);
+            return null;
+        }
+    }
+}
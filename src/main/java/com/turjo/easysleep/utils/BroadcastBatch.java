@@ -0,0 +1,68 @@
+package com.turjo.easysleep.utils;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * Multi-line world announcement sent as one chat message per player
+ *
+ * Collect the lines of a banner with line(), then send() it. The lines are
+ * joined and converted to chat components once, the world's player list is
+ * read once, and each player gets a single chat packet instead of one per
+ * line.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public final class BroadcastBatch {
+
+    private final World world;
+    private final StringBuilder lines;
+    private int lineCount;
+
+    private BroadcastBatch(World world) {
+        this.world = world;
+        this.lines = new StringBuilder(256);
+    }
+
+    /**
+     * Start a batch for all players in a world
+     *
+     * @param world The world to broadcast to
+     * @return A new, empty batch
+     */
+    public static BroadcastBatch toWorld(World world) {
+        return new BroadcastBatch(world);
+    }
+
+    /**
+     * Add a line to the batch
+     *
+     * @param message The line with color codes (&-format)
+     * @return This batch
+     */
+    public BroadcastBatch line(String message) {
+        if (lineCount > 0) {
+            lines.append('\n');
+        }
+        lines.append(MessageUtils.colorize(message));
+        lineCount++;
+        return this;
+    }
+
+    /**
+     * Send the collected lines to every player in the world
+     */
+    public void send() {
+        if (lineCount == 0) {
+            return;
+        }
+
+        BaseComponent[] components = TextComponent.fromLegacyText(lines.toString());
+        for (Player player : world.getPlayers()) {
+            player.spigot().sendMessage(components);
+        }
+    }
+}
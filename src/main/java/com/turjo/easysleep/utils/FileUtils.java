@@ -0,0 +1,59 @@
+package com.turjo.easysleep.utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Utility class for plugin data file handling
+ *
+ * Provides crash-safe writes so a data file is either fully
+ * replaced or left untouched.
+ *
+ * @author Turjo
+ */
+public class FileUtils {
+
+    /**
+     * Write content to a file atomically (temp file plus rename)
+     *
+     * @param target The file to replace
+     * @param content The full new file content
+     * @throws IOException If the temp file could not be written or moved
+     */
+    public static void writeAtomically(File target, String content) throws IOException {
+        writeAtomically(target, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write raw bytes to a file atomically (temp file plus rename)
+     *
+     * @param target The file to replace
+     * @param data The full new file content
+     * @throws IOException If the temp file could not be written or moved
+     */
+    public static void writeAtomically(File target, byte[] data) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+
+        File temp = new File(parent, target.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(data);
+            out.flush();
+            out.getFD().sync();
+        }
+
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Some file systems cannot rename atomically - still never truncate the target in place
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.turjo.easysleep.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A configured message parsed into literal text and %placeholder% slots
+ *
+ * Color codes are translated once when the template is parsed, so
+ * rendering is just appending segments to a reused StringBuilder.
+ *
+ * @author Turjo
+ * @version 1.5.2
+ */
+public final class MessageTemplate {
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    // Even indexes are literal text, odd indexes are placeholder tokens such as %player%
+    private final String[] segments;
+
+    private MessageTemplate(String[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Parse a raw message with & color codes
+     *
+     * @param raw The configured message
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String raw) {
+        String colored = MessageUtils.colorize(raw);
+        List<String> segments = new ArrayList<>();
+
+        int literalStart = 0;
+        int open = colored.indexOf('%');
+        while (open >= 0) {
+            int close = colored.indexOf('%', open + 1);
+            if (close < 0) {
+                break;
+            }
+
+            String token = colored.substring(open, close + 1);
+            if (!isPlaceholderName(token)) {
+                // Not a placeholder (e.g. "50% of players"), keep scanning from the second %
+                open = close;
+                continue;
+            }
+
+            segments.add(colored.substring(literalStart, open));
+            segments.add(token);
+            literalStart = close + 1;
+            open = colored.indexOf('%', literalStart);
+        }
+        segments.add(colored.substring(literalStart));
+
+        return new MessageTemplate(segments.toArray(new String[0]));
+    }
+
+    /**
+     * Check if a %token% looks like a placeholder name
+     */
+    private static boolean isPlaceholderName(String token) {
+        if (token.length() < 3) {
+            return false;
+        }
+        for (int i = 1; i < token.length() - 1; i++) {
+            char c = token.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Render the template
+     *
+     * @param placeholders Pairs of placeholder token and value, e.g. "%player%", name
+     * @return The rendered message; unknown placeholders are left as they are
+     */
+    public String render(String... placeholders) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if ((i & 1) == 0) {
+                builder.append(segment);
+                continue;
+            }
+
+            String value = segment;
+            for (int j = 0; j < placeholders.length - 1; j += 2) {
+                if (segment.equals(placeholders[j])) {
+                    value = placeholders[j + 1];
+                    break;
+                }
+            }
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
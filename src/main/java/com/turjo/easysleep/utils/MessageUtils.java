@@ -30,6 +30,10 @@ public class MessageUtils {
      * @return The message with ChatColor formatting
      */
     public static String colorize(String message) {
+        // Already colorized or plain text (e.g. rendered templates)
+        if (message.indexOf('&') < 0) {
+            return message;
+        }
         return ChatColor.translateAlternateColorCodes('&', message);
     }
     
@@ -71,8 +75,10 @@ public class MessageUtils {
      * @param message The message with color codes
      */
     public static void broadcastToWorld(org.bukkit.World world, String message) {
+        // Colorize once, not once per recipient
+        String colored = colorize(message);
         for (org.bukkit.entity.Player player : world.getPlayers()) {
-            sendMessage(player, message);
+            player.sendMessage(colored);
         }
     }
 }
\ No newline at end of file